@@ -0,0 +1,122 @@
+package io.github.thebusybiscuit.slimefun4.benchmarks;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.Lists.RecipeType;
+import me.mrCookieSlime.Slimefun.Objects.Category;
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import me.mrCookieSlime.Slimefun.Objects.handlers.ItemHandler;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.SlimefunItemStack;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link BenchmarkEnvironment} runs Slimefun on top of an in-process stand-in for the Bukkit server.
+ * <p>
+ * MockBukkit provides the fake {@link World Worlds}, chunks, inventories and the scheduler.
+ * Slimefun is loaded in its unit test mode, so no items, researches or listeners are registered
+ * by default. Every benchmark only registers what it needs on top of that.
+ * <p>
+ * Slimefun stores its data relative to the working directory, so benchmarks should be run
+ * from an empty directory.
+ */
+public final class BenchmarkEnvironment {
+
+    private static final String[] DIRECTORIES = { "data-storage/Slimefun/stored-blocks", "data-storage/Slimefun/stored-inventories", "data-storage/Slimefun/stored-chunks", "data-storage/Slimefun/universal-inventories" };
+
+    private final ServerMock server;
+    private final SlimefunPlugin plugin;
+    private final World world;
+    private final Category category;
+
+    /**
+     * This starts the server stand-in and loads Slimefun with a single empty {@link World}.
+     */
+    public BenchmarkEnvironment() {
+        // The unit test mode of Slimefun does not create these for us
+        for (String directory : DIRECTORIES) {
+            new File(directory).mkdirs();
+        }
+
+        server = MockBukkit.mock();
+        plugin = MockBukkit.load(SlimefunPlugin.class);
+
+        world = server.addSimpleWorld("benchmark_" + System.nanoTime());
+        category = new Category(new NamespacedKey(plugin, "benchmarks"), new ItemStack(Material.DIAMOND));
+
+        new BlockStorage(world);
+    }
+
+    public SlimefunPlugin getPlugin() {
+        return plugin;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * This registers a new {@link SlimefunItem} with the given handlers.
+     *
+     * @param id
+     *            The id of the new {@link SlimefunItem}
+     * @param type
+     *            The {@link Material} of the new {@link SlimefunItem}
+     * @param handlers
+     *            The {@link ItemHandler ItemHandlers} to add
+     * @return The registered {@link SlimefunItem}
+     */
+    public SlimefunItem registerItem(String id, Material type, ItemHandler... handlers) {
+        SlimefunItem item = new SlimefunItem(category, new SlimefunItemStack(id, type, "&b" + id), RecipeType.NULL, new ItemStack[9]);
+        item.addItemHandler(handlers);
+        item.register(plugin);
+        return item;
+    }
+
+    /**
+     * This places the given amount of blocks with the given id, spread across a square of chunks.
+     * Every chunk holds up to 256 of these blocks and is marked as loaded.
+     *
+     * @param id
+     *            The id of the Slimefun item to place
+     * @param amount
+     *            The amount of blocks to place
+     * @param y
+     *            The y coordinate of the layer that should be used
+     * @return The {@link Location Locations} of all placed blocks
+     */
+    public List<Location> placeBlocks(String id, int amount, int y) {
+        List<Location> locations = new ArrayList<>(amount);
+        int chunks = (int) Math.ceil(Math.sqrt(Math.ceil(amount / 256.0)));
+
+        for (int i = 0; i < amount; i++) {
+            int chunk = i / 256;
+            int chunkX = chunk % chunks;
+            int chunkZ = chunk / chunks;
+            Location l = new Location(world, (chunkX << 4) + (i & 15), y, (chunkZ << 4) + ((i >> 4) & 15));
+
+            BlockStorage.store(l.getBlock(), id);
+            SlimefunPlugin.getRegistry().getTickingChunks().setLoaded(world, chunkX, chunkZ, true);
+            locations.add(l);
+        }
+
+        return locations;
+    }
+
+    /**
+     * This stops the server stand-in again.
+     */
+    public void shutdown() {
+        MockBukkit.unmock();
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.github.thebusybiscuit.slimefun4.benchmarks;
+
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * This measures reading and writing the data of placed machines via {@link BlockStorage}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BlockStorageBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int machines;
+
+    private BenchmarkEnvironment environment;
+    private Location[] locations;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        environment.registerItem("BENCHMARK_MACHINE", Material.FURNACE);
+
+        List<Location> placed = environment.placeBlocks("BENCHMARK_MACHINE", machines, 64);
+        locations = placed.toArray(new Location[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        environment.shutdown();
+    }
+
+    private Location next() {
+        index = (index + 1) % locations.length;
+        return locations[index];
+    }
+
+    @Benchmark
+    public void setBlockInfo() {
+        BlockStorage.addBlockInfo(next(), "progress", String.valueOf(index), false);
+    }
+
+    @Benchmark
+    public String getBlockInfo() {
+        return BlockStorage.getLocationInfo(next(), "id");
+    }
+
+    @Benchmark
+    public Config getLocationInfo() {
+        return BlockStorage.getLocationInfo(next());
+    }
+
+}
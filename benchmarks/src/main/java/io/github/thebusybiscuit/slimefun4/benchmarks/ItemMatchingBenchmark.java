@@ -0,0 +1,164 @@
+package io.github.thebusybiscuit.slimefun4.benchmarks;
+
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This measures looking up an item in a recipe list of the given size via
+ * {@link SlimefunUtils#isItemSimilar(ItemStack, ItemStack, boolean)}.
+ * The item we look for is always the last entry, so every other entry has to be compared first.
+ * All entries share the same {@link Material} and display name and only differ in their lore,
+ * which is the worst case for the lore comparison.
+ * <p>
+ * {@link #isItemSimilarJoinedLore()} is the baseline: a copy of the lore comparison that joined
+ * both lores into a {@link StringBuilder} before comparing them.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ItemMatchingBenchmark {
+
+    private static final String EMERALDENCHANTS_LORE = ChatColor.YELLOW.toString() + ChatColor.YELLOW.toString() + ChatColor.GRAY.toString();
+    private static final String SOULBOUND_LORE = ChatColor.GRAY + "灵魂绑定";
+
+    @Param({ "10", "100", "1000" })
+    private int items;
+
+    @Param({ "1", "8" })
+    private int loreLines;
+
+    private BenchmarkEnvironment environment;
+    private ItemStack[] recipes;
+    private ItemStack item;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        recipes = new ItemStack[items];
+
+        for (int i = 0; i < items; i++) {
+            recipes[i] = createItem(i);
+        }
+
+        item = createItem(items - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        environment.shutdown();
+    }
+
+    private ItemStack createItem(int index) {
+        ItemStack stack = new ItemStack(Material.IRON_INGOT);
+        ItemMeta meta = stack.getItemMeta();
+        meta.setDisplayName("&bAlloy Ingot");
+
+        List<String> lore = new ArrayList<>(loreLines);
+
+        for (int i = 0; i < loreLines - 1; i++) {
+            lore.add("&7A shared line of lore #" + i);
+        }
+
+        // Only the last line of lore tells the items apart
+        lore.add("&7Variant " + index);
+        meta.setLore(lore);
+
+        stack.setItemMeta(meta);
+        return stack;
+    }
+
+    @Benchmark
+    public int isItemSimilar() {
+        for (int i = 0; i < recipes.length; i++) {
+            if (SlimefunUtils.isItemSimilar(item, recipes[i], true)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Benchmark
+    public int isItemSimilarJoinedLore() {
+        for (int i = 0; i < recipes.length; i++) {
+            ItemStack recipe = recipes[i];
+
+            if (item.getType() == recipe.getType()) {
+                ItemMeta itemMeta = item.getItemMeta();
+                ItemMeta recipeMeta = recipe.getItemMeta();
+
+                if (itemMeta.getDisplayName().equals(recipeMeta.getDisplayName()) && equalsJoinedLore(itemMeta.getLore(), recipeMeta.getLore())) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Benchmark
+    public int isItemSimilarWrapped() {
+        // Callers that compare one item against many should wrap it once
+        ItemStack wrapper = new ItemStackWrapper(item);
+
+        for (int i = 0; i < recipes.length; i++) {
+            if (SlimefunUtils.isItemSimilar(wrapper, recipes[i], true)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Benchmark
+    public int isItemSimilarWithoutLore() {
+        int matches = 0;
+
+        for (ItemStack recipe : recipes) {
+            if (SlimefunUtils.isItemSimilar(item, recipe, false)) {
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    // A copy of how SlimefunUtils used to compare two lores
+    private static boolean equalsJoinedLore(List<String> lore, List<String> lore2) {
+        StringBuilder string1 = new StringBuilder();
+        StringBuilder string2 = new StringBuilder();
+
+        for (String string : lore) {
+            if (!string.equals(SOULBOUND_LORE) && !string.startsWith(EMERALDENCHANTS_LORE)) {
+                string1.append("-NEW LINE-").append(string);
+            }
+        }
+
+        for (String string : lore2) {
+            if (!string.equals(SOULBOUND_LORE) && !string.startsWith(EMERALDENCHANTS_LORE)) {
+                string2.append("-NEW LINE-").append(string);
+            }
+        }
+
+        return string1.toString().equals(string2.toString());
+    }
+
+}
@@ -0,0 +1,37 @@
+package io.github.thebusybiscuit.slimefun4.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This is the entry point of our benchmarks.
+ * It accepts the same arguments as the regular JMH runner, but unless specified otherwise,
+ * the results are written as JSON to {@code slimefun-benchmarks.json}, so different releases can be compared offline.
+ */
+public final class SlimefunBenchmarks {
+
+    private static final String RESULT_FILE = "slimefun-benchmarks.json";
+
+    private SlimefunBenchmarks() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (!options.getResult().hasValue()) {
+            builder.result(RESULT_FILE);
+        }
+
+        new Runner(builder.build()).run();
+    }
+
+}
@@ -0,0 +1,69 @@
+package io.github.thebusybiscuit.slimefun4.benchmarks;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import io.github.thebusybiscuit.slimefun4.implementation.tasks.TickerTask;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This measures a full cycle of the {@link TickerTask} over a given amount of machines.
+ * The machines themselves only read their own data, so this mostly measures the overhead of the {@link TickerTask}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TickerTaskBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int machines;
+
+    private BenchmarkEnvironment environment;
+    private TickerTask ticker;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        environment.registerItem("BENCHMARK_TICKING_MACHINE", Material.FURNACE, new BlockTicker() {
+
+            @Override
+            public boolean isSynchronized() {
+                return false;
+            }
+
+            @Override
+            public void tick(Block b, SlimefunItem item, Config data) {
+                data.getString("progress");
+            }
+        });
+
+        environment.placeBlocks("BENCHMARK_TICKING_MACHINE", machines, 64);
+
+        ticker = SlimefunPlugin.getTickerTask();
+        ticker.start(environment.getPlugin());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        environment.shutdown();
+    }
+
+    @Benchmark
+    public void tick() {
+        ticker.run();
+    }
+
+}
@@ -0,0 +1,167 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import io.github.thebusybiscuit.slimefun4.benchmarks.BenchmarkEnvironment;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoRoutePlanner.CargoRoute;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
+import me.mrCookieSlime.Slimefun.api.inventory.BlockMenuPreset;
+import me.mrCookieSlime.Slimefun.api.item_transport.ItemTransportFlow;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This measures a cargo network with the given amount of input nodes.
+ * Every input node has a whitelist of 9 items and sits below a chest holding one matching item,
+ * all of them are routed into a single output chest.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CargoBenchmark {
+
+    private static final int[] CHEST_SLOTS = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26 };
+
+    @Param({ "10", "100", "1000" })
+    private int nodes;
+
+    private BenchmarkEnvironment environment;
+    private ItemStack item;
+
+    private Block[] inputNodes;
+    private BlockMenu[] inputChests;
+    private Block outputNode;
+    private BlockMenu outputChest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+
+        BlockMenuPreset nodePreset = new BenchmarkPreset("BENCHMARK_CARGO_NODE", new int[0]);
+        BlockMenuPreset chestPreset = new BenchmarkPreset("BENCHMARK_CHEST", CHEST_SLOTS);
+
+        item = createItem(Material.IRON_INGOT, "&7Ingot", "&7Tier 8");
+
+        List<Location> nodeLocations = environment.placeBlocks("BENCHMARK_CARGO_NODE", nodes, 64);
+        inputNodes = new Block[nodes];
+        inputChests = new BlockMenu[nodes];
+
+        for (int i = 0; i < nodes; i++) {
+            Location l = nodeLocations.get(i);
+            inputNodes[i] = l.getBlock();
+
+            BlockStorage.addBlockInfo(l, "filter-type", "whitelist");
+            BlockStorage.addBlockInfo(l, "filter-lore", "true");
+            BlockMenu nodeMenu = BlockStorage.getStorage(l.getWorld()).loadInventory(l, nodePreset);
+            int[] filterSlots = CargoUtils.getWhitelistBlacklistSlots();
+
+            for (int j = 0; j < filterSlots.length; j++) {
+                // Only the last template matches, so every other one has to be skipped
+                ItemStack template = j == filterSlots.length - 1 ? item.clone() : createItem(Material.IRON_INGOT, "&7Ingot", "&7Tier " + j);
+                nodeMenu.replaceExistingItem(filterSlots[j], template);
+            }
+
+            Location chest = l.clone().add(0, 1, 0);
+            BlockStorage.store(chest.getBlock(), "BENCHMARK_CHEST");
+            inputChests[i] = BlockStorage.getStorage(chest.getWorld()).loadInventory(chest, chestPreset);
+            inputChests[i].replaceExistingItem(0, item.clone());
+        }
+
+        Location output = new Location(environment.getWorld(), 0, 100, 0);
+        BlockStorage.store(output.getBlock(), "CARGO_NODE_OUTPUT");
+        outputNode = output.getBlock();
+
+        Location chest = output.clone().add(0, 1, 0);
+        BlockStorage.store(chest.getBlock(), "BENCHMARK_CHEST");
+        outputChest = BlockStorage.getStorage(chest.getWorld()).loadInventory(chest, chestPreset);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        environment.shutdown();
+    }
+
+    private static ItemStack createItem(Material type, String name, String... lore) {
+        ItemStack stack = new ItemStack(type);
+        ItemMeta meta = stack.getItemMeta();
+        meta.setDisplayName(name);
+        meta.setLore(Arrays.asList(lore));
+        stack.setItemMeta(meta);
+        return stack;
+    }
+
+    @Benchmark
+    public int matchesFilter() {
+        int matches = 0;
+
+        for (Block node : inputNodes) {
+            if (CargoUtils.matchesFilter(node, item)) {
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    @Benchmark
+    public int planRoutes() {
+        CargoRoutePlanner planner = new CargoRoutePlanner();
+        int routes = 0;
+
+        for (int i = 0; i < inputNodes.length; i++) {
+            CargoRoute route = planner.withdraw(CargoFilter.get(inputNodes[i]), inputChests[i], inputChests[i].getLocation());
+
+            if (route != null) {
+                route.insert(CargoFilter.get(outputNode), outputChest);
+                route.finish();
+                routes++;
+            }
+        }
+
+        return routes;
+    }
+
+    private static class BenchmarkPreset extends BlockMenuPreset {
+
+        private final int[] slots;
+
+        BenchmarkPreset(String id, int[] slots) {
+            super(id, id);
+            this.slots = slots;
+        }
+
+        @Override
+        public void init() {
+            // Every slot is accessed via cargo, so no layout is needed
+        }
+
+        @Override
+        public boolean canOpen(Block b, Player p) {
+            return true;
+        }
+
+        @Override
+        public int[] getSlotsAccessedByItemTransport(ItemTransportFlow flow) {
+            return slots;
+        }
+
+    }
+
+}
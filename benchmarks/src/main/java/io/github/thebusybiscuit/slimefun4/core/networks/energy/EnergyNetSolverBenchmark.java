@@ -0,0 +1,90 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.energy;
+
+import io.github.thebusybiscuit.slimefun4.benchmarks.BenchmarkEnvironment;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.api.energy.ChargableBlock;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This measures the energy distribution of an {@link EnergyNet} with the given amount of nodes,
+ * a third of them are capacitors, a third consumers and the rest generators.
+ * <p>
+ * Discovering the nodes and ticking the generators is not part of this, every operation is the
+ * {@link EnergyNetSolver} part of {@link EnergyNet#tick(org.bukkit.block.Block)},
+ * followed by every consumer using up its energy again, so the next tick has the same amount of work.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EnergyNetSolverBenchmark {
+
+    private static final int GENERATOR_SUPPLY = 64;
+    private static final int CAPACITOR_CAPACITY = 1024;
+    private static final int CONSUMER_CAPACITY = 128;
+
+    @Param({ "30", "300", "3000" })
+    private int nodes;
+
+    private BenchmarkEnvironment environment;
+    private EnergyNetSolver solver;
+
+    private Set<Location> generators;
+    private Set<Location> capacitors;
+    private Set<Location> consumers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        environment.registerItem("BENCHMARK_GENERATOR", Material.FURNACE);
+        environment.registerItem("BENCHMARK_CAPACITOR", Material.PLAYER_HEAD);
+        environment.registerItem("BENCHMARK_CONSUMER", Material.FURNACE);
+
+        SlimefunPlugin.getRegistry().getEnergyCapacities().put("BENCHMARK_GENERATOR", GENERATOR_SUPPLY);
+        SlimefunPlugin.getRegistry().getEnergyCapacities().put("BENCHMARK_CAPACITOR", CAPACITOR_CAPACITY);
+        SlimefunPlugin.getRegistry().getEnergyCapacities().put("BENCHMARK_CONSUMER", CONSUMER_CAPACITY);
+
+        capacitors = new LinkedHashSet<>(environment.placeBlocks("BENCHMARK_CAPACITOR", nodes / 3, 64));
+        consumers = new LinkedHashSet<>(environment.placeBlocks("BENCHMARK_CONSUMER", nodes / 3, 65));
+        generators = new LinkedHashSet<>(environment.placeBlocks("BENCHMARK_GENERATOR", nodes - 2 * (nodes / 3), 66));
+
+        solver = new EnergyNetSolver();
+        solver.update(generators, capacitors, consumers);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        environment.shutdown();
+    }
+
+    @Benchmark
+    public int tick() {
+        solver.update(generators, capacitors, consumers);
+
+        int supply = generators.size() * GENERATOR_SUPPLY + solver.getStoredEnergy();
+        int available = solver.chargeConsumers(supply);
+        solver.storeExcessEnergy(available);
+        int demand = solver.getDemand();
+
+        for (Location consumer : consumers) {
+            ChargableBlock.setUnsafeCharge(consumer, 0, CONSUMER_CAPACITY, false);
+        }
+
+        return demand;
+    }
+
+}
@@ -2,6 +2,9 @@ package io.github.starwishsama.extra;
 
 import com.bekvon.bukkit.residence.Residence;
 import com.bekvon.bukkit.residence.containers.Flags;
+import com.bekvon.bukkit.residence.event.ResidenceDeleteEvent;
+import com.bekvon.bukkit.residence.event.ResidenceFlagChangeEvent;
+import com.bekvon.bukkit.residence.event.ResidenceOwnerChangeEvent;
 import com.bekvon.bukkit.residence.protection.ClaimedResidence;
 import com.bekvon.bukkit.residence.protection.ResidencePermissions;
 import com.google.gson.JsonElement;
@@ -12,12 +15,19 @@ import io.github.thebusybiscuit.slimefun4.api.events.AndroidMineEvent;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -26,12 +36,18 @@ import java.util.logging.Level;
  * @author Nameless
  */
 public class ProtectionChecker implements Listener {
+    // 权限检查结果的缓存时间
+    private static final long CACHE_DURATION = TimeUnit.SECONDS.toMillis(5);
+    private static final int MAX_CACHE_SIZE = 8192;
+
+    private static final Map<PermissionKey, Decision> cache = new ConcurrentHashMap<>();
+
     private static boolean resInstalled = false;
 
     @EventHandler
     public void onAndroidMine(AndroidMineEvent e) {
         if (e != null) {
-            Player p = Bukkit.getPlayer(getOwnerByJson(BlockStorage.getBlockInfoAsJson(e.getAndroid().getBlock())));
+            Player p = getOwner(e.getAndroid().getBlock().getLocation());
 
             if (!canInteract(p, e.getBlock(), ProtectableAction.BREAK_BLOCK)) {
                 e.setCancelled(true);
@@ -53,6 +69,34 @@ public class ProtectionChecker implements Listener {
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onFlagChange(ResidenceFlagChangeEvent e) {
+        invalidate();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onOwnerChange(ResidenceOwnerChangeEvent e) {
+        invalidate();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDelete(ResidenceDeleteEvent e) {
+        invalidate();
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        UUID uuid = e.getPlayer().getUniqueId();
+        cache.keySet().removeIf(key -> key.player.equals(uuid));
+    }
+
+    /**
+     * 清除所有缓存的权限检查结果
+     */
+    public static void invalidate() {
+        cache.clear();
+    }
+
     /**
      * 检查是否可以在领地/地皮内破坏/交互方块
      *
@@ -81,27 +125,67 @@ public class ProtectionChecker implements Listener {
                 return true;
             }
 
-            ResidencePermissions perms = res.getPermissions();
+            PermissionKey key = new PermissionKey(p.getUniqueId(), res, action);
+            Decision decision = cache.get(key);
+            long now = System.currentTimeMillis();
 
-            if (perms.playerHas(p, Flags.admin, true)) {
-                return true;
+            if (decision == null || decision.expiry < now) {
+                if (cache.size() >= MAX_CACHE_SIZE) {
+                    cache.clear();
+                }
+
+                decision = new Decision(hasPermission(p, res.getPermissions(), action), now + CACHE_DURATION);
+                cache.put(key, decision);
             }
 
-            switch (action) {
-                case BREAK_BLOCK:
-                    return perms.playerHas(p, Flags.destroy, true) || perms.playerHas(p, Flags.build, true);
-                case PLACE_BLOCK:
-                    return perms.playerHas(p, Flags.place, true) || perms.playerHas(p, Flags.build, true) || !perms.playerHas(p, Flags.move, true);
-                case ACCESS_INVENTORIES:
-                    if (!perms.playerHas(p, Flags.use, true)) {
-                        SlimefunPlugin.getLocalization().sendMessage(p, "inventory.no-access");
-                        return false;
-                    }
+            boolean result = decision.allowed;
+
+            if (!result && action == ProtectableAction.ACCESS_INVENTORIES) {
+                SlimefunPlugin.getLocalization().sendMessage(p, "inventory.no-access");
             }
+
+            return result;
         }
         return true;
     }
 
+    private static boolean hasPermission(Player p, ResidencePermissions perms, ProtectableAction action) {
+        if (perms.playerHas(p, Flags.admin, true)) {
+            return true;
+        }
+
+        switch (action) {
+            case BREAK_BLOCK:
+                return perms.playerHas(p, Flags.destroy, true) || perms.playerHas(p, Flags.build, true);
+            case PLACE_BLOCK:
+                return perms.playerHas(p, Flags.place, true) || perms.playerHas(p, Flags.build, true) || !perms.playerHas(p, Flags.move, true);
+            case ACCESS_INVENTORIES:
+                return perms.playerHas(p, Flags.use, true);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 获取机器人的主人
+     *
+     * @param android 机器人所在的位置
+     * @return 在线的主人, 如果主人不在线则返回 null
+     */
+    public static Player getOwner(Location android) {
+        String owner = BlockStorage.getLocationInfo(android, "owner");
+
+        if (owner == null) {
+            return null;
+        }
+
+        return Bukkit.getPlayer(UUID.fromString(owner));
+    }
+
+    /**
+     * @deprecated 请使用 {@link #getOwner(Location)}, 无需将方块数据序列化为 JSON
+     */
+    @Deprecated
     public static UUID getOwnerByJson(String json) {
         if (json != null) {
             JsonElement element = new JsonParser().parse(json);
@@ -112,4 +196,43 @@ public class ProtectionChecker implements Listener {
         }
         return null;
     }
+
+    private static final class Decision {
+        private final boolean allowed;
+        private final long expiry;
+
+        private Decision(boolean allowed, long expiry) {
+            this.allowed = allowed;
+            this.expiry = expiry;
+        }
+    }
+
+    private static final class PermissionKey {
+        private final UUID player;
+        private final ClaimedResidence residence;
+        private final ProtectableAction action;
+        private final int hashCode;
+
+        private PermissionKey(UUID player, ClaimedResidence residence, ProtectableAction action) {
+            this.player = player;
+            this.residence = residence;
+            this.action = action;
+            this.hashCode = Objects.hash(player, System.identityHashCode(residence), action);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PermissionKey)) {
+                return false;
+            }
+
+            PermissionKey other = (PermissionKey) obj;
+            return residence == other.residence && action == other.action && player.equals(other.player);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
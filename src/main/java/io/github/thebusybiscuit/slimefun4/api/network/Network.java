@@ -11,9 +11,11 @@ import org.bukkit.Particle;
 import org.bukkit.Particle.DustOptions;
 
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An abstract Network class to manage networks in a stateful way
@@ -30,7 +32,8 @@ public abstract class Network {
     protected Location regulator;
     private Queue<Location> nodeQueue = new ArrayDeque<>();
 
-    protected final Set<Location> connectedLocations = new HashSet<>();
+    // The NetworkManager may iterate over this Set from a different Thread
+    protected final Set<Location> connectedLocations = ConcurrentHashMap.newKeySet();
     protected final Set<Location> regulatorNodes = new HashSet<>();
     protected final Set<Location> connectorNodes = new HashSet<>();
     protected final Set<Location> terminusNodes = new HashSet<>();
@@ -102,6 +105,7 @@ public abstract class Network {
         }
 
         connectedLocations.add(l.clone());
+        manager.indexLocation(this, l);
         markDirty(l);
     }
 
@@ -131,6 +135,15 @@ public abstract class Network {
         return connectedLocations.contains(l);
     }
 
+    /**
+     * This returns every {@link Location} that is connected to this {@link Network}.
+     *
+     * @return An unmodifiable view of all connected {@link Location Locations}
+     */
+    public Set<Location> getConnectedLocations() {
+        return Collections.unmodifiableSet(connectedLocations);
+    }
+
     private NetworkComponent getCurrentClassification(Location l) {
         if (regulatorNodes.contains(l)) {
             return NetworkComponent.REGULATOR;
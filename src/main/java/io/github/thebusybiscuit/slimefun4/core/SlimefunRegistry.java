@@ -10,6 +10,7 @@ import io.github.thebusybiscuit.slimefun4.core.guide.SlimefunGuideImplementation
 import io.github.thebusybiscuit.slimefun4.core.guide.SlimefunGuideLayout;
 import io.github.thebusybiscuit.slimefun4.core.multiblocks.MultiBlock;
 import io.github.thebusybiscuit.slimefun4.core.researching.Research;
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunkRegistry;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.implementation.guide.BookSlimefunGuide;
 import io.github.thebusybiscuit.slimefun4.implementation.guide.CheatSheetSlimefunGuide;
@@ -22,7 +23,6 @@ import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenuPreset;
 import me.mrCookieSlime.Slimefun.api.inventory.UniversalBlockMenu;
-import org.bukkit.Location;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 
@@ -58,7 +58,7 @@ public class SlimefunRegistry {
 
     private final Set<String> tickers = new HashSet<>();
     private final Set<SlimefunItem> radioactive = new HashSet<>();
-    private final Set<String> activeChunks = new HashSet<>();
+    private final TickingChunkRegistry tickingChunks = new TickingChunkRegistry();
 
     private final KeyMap<GEOResource> geoResources = new KeyMap<>();
 
@@ -79,7 +79,6 @@ public class SlimefunRegistry {
     private final Map<Class<? extends ItemHandler>, Set<ItemHandler>> itemHandlers = new HashMap<>();
     private final Map<String, SlimefunBlockHandler> blockHandlers = new HashMap<>();
 
-    private final Map<String, Set<Location>> activeTickers = new HashMap<>();
 
     private final Map<String, ItemStack> automatedCraftingChamberRecipes = new HashMap<>();
 
@@ -190,8 +189,8 @@ public class SlimefunRegistry {
         return tickers;
     }
 
-    public Set<String> getActiveChunks() {
-        return activeChunks;
+    public TickingChunkRegistry getTickingChunks() {
+        return tickingChunks;
     }
 
     public Map<String, SlimefunItem> getSlimefunItemIds() {
@@ -230,10 +229,6 @@ public class SlimefunRegistry {
         return chunks;
     }
 
-    public Map<String, Set<Location>> getActiveTickers() {
-        return activeTickers;
-    }
-
     public KeyMap<GEOResource> getGEOResources() {
         return geoResources;
     }
@@ -26,6 +26,7 @@ class ReloadCommand extends SubCommand {
         if (sender.hasPermission("slimefun.command.reload") || sender instanceof ConsoleCommandSender) {
             SlimefunPlugin.getCfg().reload();
             SlimefunPlugin.getItemCfg().reload();
+            SlimefunPlugin.getItemResolutionService().clear();
             SlimefunPlugin.getLocalization().sendMessage(sender, "messages.reloaded", true);
         } else {
             SlimefunPlugin.getLocalization().sendMessage(sender, "messages.no-permission", true);
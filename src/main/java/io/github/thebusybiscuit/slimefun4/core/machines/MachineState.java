@@ -0,0 +1,81 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+/**
+ * A {@link MachineState} represents the operation a machine is currently working on
+ * and how many ticks are left until it is done.
+ *
+ * @param <T>
+ *            The type of operation, e.g. a recipe or a fuel
+ * @see MachineStateStore
+ */
+public final class MachineState<T> {
+
+    private final T operation;
+    private final int totalTicks;
+
+    private volatile int remainingTicks;
+    private volatile boolean persisted;
+    private volatile boolean changed = true;
+
+    MachineState(T operation, int totalTicks, int remainingTicks) {
+        this.operation = operation;
+        this.totalTicks = totalTicks;
+        this.remainingTicks = remainingTicks;
+    }
+
+    public T getOperation() {
+        return operation;
+    }
+
+    public int getTotalTicks() {
+        return totalTicks;
+    }
+
+    public int getRemainingTicks() {
+        return remainingTicks;
+    }
+
+    public void setRemainingTicks(int remainingTicks) {
+        if (this.remainingTicks != remainingTicks) {
+            this.remainingTicks = remainingTicks;
+            changed = true;
+        }
+    }
+
+    /**
+     * This marks this {@link MachineState} as changed, so it is written to the block data again on the next save.
+     * Changing the remaining ticks already does this, it is only needed if the operation itself is mutable.
+     */
+    public void markChanged() {
+        changed = true;
+    }
+
+    /**
+     * This returns whether this {@link MachineState} may have been written to the block data.
+     * If so, it needs to be cleared there once the operation is done.
+     *
+     * @return Whether this state was persisted
+     */
+    boolean isPersisted() {
+        return persisted;
+    }
+
+    void markPersisted() {
+        persisted = true;
+    }
+
+    /**
+     * This returns whether this {@link MachineState} was changed since it was last written to the block data.
+     *
+     * @return Whether this state needs to be saved
+     */
+    boolean isChanged() {
+        return changed;
+    }
+
+    void markSaved() {
+        persisted = true;
+        changed = false;
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * The {@link MachineStateService} keeps track of every {@link MachineStateStore}.
+ * It forwards {@link Chunk} unloads, {@link World} unloads and removed blocks to all of them
+ * and makes sure that every {@link MachineState} is written to the block data before it is saved.
+ *
+ * @see MachineStateStore
+ */
+public class MachineStateService {
+
+    private final List<MachineStateStore<?>> stores = new CopyOnWriteArrayList<>();
+
+    /**
+     * This creates a new {@link MachineStateStore} for the given {@link SlimefunItem}.
+     *
+     * @param item
+     *            The machine
+     * @param serializer
+     *            Turns an operation into a {@link String}, may return null if it cannot be persisted
+     * @param deserializer
+     *            Turns a {@link String} back into an operation, may return null if it is no longer valid
+     * @param <T>
+     *            The type of operation
+     * @return The new {@link MachineStateStore}
+     */
+    public <T> MachineStateStore<T> createStore(SlimefunItem item, Function<T, String> serializer, Function<String, T> deserializer) {
+        MachineStateStore<T> store = new MachineStateStore<>(item.getID(), serializer, deserializer);
+        stores.add(store);
+        return store;
+    }
+
+    public void unloadChunk(World world, int chunkX, int chunkZ) {
+        for (MachineStateStore<?> store : stores) {
+            store.unloadChunk(world, chunkX, chunkZ);
+        }
+    }
+
+    public void unloadWorld(World world) {
+        for (MachineStateStore<?> store : stores) {
+            store.unloadWorld(world);
+        }
+    }
+
+    /**
+     * This drops the {@link MachineState} of a block that was removed.
+     *
+     * @param l
+     *            The {@link Location} of the removed block
+     */
+    public void remove(Location l) {
+        for (MachineStateStore<?> store : stores) {
+            store.remove(l);
+        }
+    }
+
+    /**
+     * This writes every {@link MachineState} to the block data, it should be called right before
+     * the block data is saved.
+     */
+    public void saveAll() {
+        for (MachineStateStore<?> store : stores) {
+            store.saveAll();
+        }
+    }
+
+}
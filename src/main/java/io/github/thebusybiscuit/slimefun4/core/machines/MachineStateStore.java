@@ -0,0 +1,353 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunkRegistry;
+import io.github.thebusybiscuit.slimefun4.utils.collections.LongHashMap;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * The {@link MachineStateStore} holds the {@link MachineState} of every block of one {@link SlimefunItem}.
+ * <p>
+ * States are partitioned by {@link World} and {@link Chunk}, a partition is loaded from the block data
+ * the first time one of its blocks is accessed. When a {@link Chunk} unloads, its states are written back
+ * to the block data and the partition is dropped, so operations in progress survive restarts.
+ * Only states that changed since they were last written are written again.
+ *
+ * @param <T>
+ *            The type of operation, e.g. a recipe or a fuel
+ * @see MachineState
+ * @see MachineStateService
+ */
+public class MachineStateStore<T> {
+
+    static final String KEY = "machine-state";
+
+    private final String id;
+    private final Function<T, String> serializer;
+    private final Function<String, T> deserializer;
+    private final Map<UUID, LongHashMap<Map<Location, MachineState<T>>>> worlds = new ConcurrentHashMap<>();
+
+    private volatile String[] legacyKeys = new String[0];
+
+    MachineStateStore(String id, Function<T, String> serializer, Function<String, T> deserializer) {
+        this.id = id;
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * This sets the keys of the block data that held the state of this machine before it was moved
+     * into this {@link MachineStateStore}. They are removed from a block once its migrated
+     * {@link MachineState} has been written to the block data.
+     *
+     * @param keys
+     *            The legacy keys
+     */
+    public void setLegacyKeys(String... keys) {
+        this.legacyKeys = keys;
+    }
+
+    /**
+     * This returns the {@link MachineState} of the block at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the machine
+     * @return The current {@link MachineState} or null if the machine is idle or its chunk is not loaded
+     */
+    public MachineState<T> get(Location l) {
+        int chunkX = l.getBlockX() >> 4;
+        int chunkZ = l.getBlockZ() >> 4;
+        Map<Location, MachineState<T>> partition = getLoadedPartition(l.getWorld().getUID(), chunkX, chunkZ);
+
+        if (partition == null) {
+            // Loading a partition may load a whole region of block data, not worth it for an unloaded chunk
+            if (!l.getWorld().isChunkLoaded(chunkX, chunkZ)) {
+                return null;
+            }
+
+            partition = getPartition(l);
+        }
+
+        return partition.get(l);
+    }
+
+    /**
+     * This starts a new operation at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the machine
+     * @param operation
+     *            The operation to start
+     * @param ticks
+     *            How many ticks this operation takes
+     * @return The new {@link MachineState}
+     */
+    public MachineState<T> start(Location l, T operation, int ticks) {
+        MachineState<T> state = new MachineState<>(operation, ticks, ticks);
+        MachineState<T> previous = getPartition(l).put(l, state);
+
+        if (previous != null && previous.isPersisted()) {
+            // The old state could still be found in the block data
+            state.markPersisted();
+        }
+
+        return state;
+    }
+
+    /**
+     * This ends the operation at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the machine
+     */
+    public void finish(Location l) {
+        MachineState<T> state = getPartition(l).remove(l);
+
+        if (state != null && state.isPersisted() && BlockStorage.hasBlockInfo(l)) {
+            BlockStorage.addBlockInfo(l, KEY, null);
+        }
+    }
+
+    /**
+     * This moves the {@link MachineState} at one {@link Location} to another one.
+     * It is used for blocks that move themselves together with their block data.
+     *
+     * @param from
+     *            The old {@link Location} of the block
+     * @param to
+     *            The new {@link Location} of the block
+     */
+    public void move(Location from, Location to) {
+        MachineState<T> state = getPartition(from).remove(from);
+
+        if (state != null) {
+            getPartition(to).put(to, state);
+        }
+    }
+
+    /**
+     * This drops the {@link MachineState} at the given {@link Location} without touching the block data.
+     * It is used when the block itself was removed.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     */
+    void remove(Location l) {
+        Map<Location, MachineState<T>> partition = getLoadedPartition(l.getWorld().getUID(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
+
+        if (partition != null) {
+            partition.remove(l);
+        }
+    }
+
+    private Map<Location, MachineState<T>> getLoadedPartition(UUID world, int chunkX, int chunkZ) {
+        LongHashMap<Map<Location, MachineState<T>>> chunks = worlds.get(world);
+        return chunks == null ? null : chunks.get(TickingChunkRegistry.getChunkKey(chunkX, chunkZ));
+    }
+
+    private Map<Location, MachineState<T>> getPartition(Location l) {
+        World world = l.getWorld();
+        int chunkX = l.getBlockX() >> 4;
+        int chunkZ = l.getBlockZ() >> 4;
+        long key = TickingChunkRegistry.getChunkKey(chunkX, chunkZ);
+
+        LongHashMap<Map<Location, MachineState<T>>> chunks = worlds.computeIfAbsent(world.getUID(), uuid -> new LongHashMap<>());
+        Map<Location, MachineState<T>> partition = chunks.get(key);
+
+        if (partition == null) {
+            partition = chunks.computeIfAbsent(key, k -> load(world, chunkX, chunkZ));
+        }
+
+        return partition;
+    }
+
+    private Map<Location, MachineState<T>> load(World world, int chunkX, int chunkZ) {
+        Map<Location, MachineState<T>> partition = new ConcurrentHashMap<>();
+        List<Location> migrated = new ArrayList<>();
+
+        BlockStorage.forEachBlock(world, chunkX, chunkZ, (l, data) -> {
+            String value = data.getString(KEY);
+
+            if (value != null && id.equals(data.getString("id"))) {
+                MachineState<T> state = deserialize(l, value);
+
+                if (state != null) {
+                    partition.put(l, state);
+
+                    if (hasLegacyKeys(data)) {
+                        migrated.add(l);
+                    }
+                }
+            }
+        });
+
+        // These states have already been written, so their legacy keys are no longer needed
+        migrated.forEach(this::removeLegacyKeys);
+        return partition;
+    }
+
+    /**
+     * This writes every {@link MachineState} inside the given {@link Chunk} to the block data
+     * and drops them from memory.
+     *
+     * @param world
+     *            The {@link World}
+     * @param chunkX
+     *            The x coordinate of the {@link Chunk}
+     * @param chunkZ
+     *            The z coordinate of the {@link Chunk}
+     */
+    void unloadChunk(World world, int chunkX, int chunkZ) {
+        LongHashMap<Map<Location, MachineState<T>>> chunks = worlds.get(world.getUID());
+
+        if (chunks != null) {
+            Map<Location, MachineState<T>> partition = chunks.remove(TickingChunkRegistry.getChunkKey(chunkX, chunkZ));
+
+            if (partition != null) {
+                partition.forEach(this::save);
+            }
+        }
+    }
+
+    void unloadWorld(World world) {
+        LongHashMap<Map<Location, MachineState<T>>> chunks = worlds.remove(world.getUID());
+
+        if (chunks != null) {
+            chunks.forEach((key, partition) -> partition.forEach(this::save));
+        }
+    }
+
+    /**
+     * This runs the given action for every {@link MachineState} in a loaded partition.
+     *
+     * @param action
+     *            The action to run
+     */
+    void forEachLoaded(BiConsumer<Location, MachineState<T>> action) {
+        for (LongHashMap<Map<Location, MachineState<T>>> chunks : worlds.values()) {
+            chunks.forEach((key, partition) -> partition.forEach(action));
+        }
+    }
+
+    void saveAll() {
+        for (LongHashMap<Map<Location, MachineState<T>>> chunks : worlds.values()) {
+            chunks.forEach((key, partition) -> partition.forEach(this::save));
+        }
+    }
+
+    private void save(Location l, MachineState<T> state) {
+        // The block may have been removed in the meantime, unchanged states are already in the block data
+        if (state.isChanged() && BlockStorage.hasBlockInfo(l)) {
+            String operation = serializer.apply(state.getOperation());
+
+            if (operation != null) {
+                BlockStorage.addBlockInfo(l, KEY, state.getRemainingTicks() + ";" + state.getTotalTicks() + ';' + operation);
+
+                if (!state.isPersisted()) {
+                    // This state may have been migrated from the legacy keys
+                    removeLegacyKeys(l);
+                }
+
+                state.markSaved();
+            }
+        }
+    }
+
+    private boolean hasLegacyKeys(Config data) {
+        for (String key : legacyKeys) {
+            if (data.contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void removeLegacyKeys(Location l) {
+        for (String key : legacyKeys) {
+            if (BlockStorage.getLocationInfo(l, key) != null) {
+                BlockStorage.addBlockInfo(l, key, null);
+            }
+        }
+    }
+
+    private MachineState<T> deserialize(Location l, String value) {
+        String[] segments = value.split(";", 3);
+
+        try {
+            if (segments.length == 3) {
+                T operation = deserializer.apply(segments[2]);
+
+                if (operation != null) {
+                    MachineState<T> state = new MachineState<>(operation, Integer.parseInt(segments[1]), Integer.parseInt(segments[0]));
+                    state.markSaved();
+                    return state;
+                }
+            }
+        } catch (Exception x) {
+            Slimefun.getLogger().log(Level.WARNING, x, () -> "Could not restore the machine state of " + id + " at " + l);
+        }
+
+        return null;
+    }
+
+    /**
+     * This serializes the given {@link ItemStack ItemStacks}, so they can be stored as part of a
+     * {@link MachineState}.
+     *
+     * @param items
+     *            The {@link ItemStack ItemStacks} to serialize
+     * @return The serialized {@link ItemStack ItemStacks}
+     */
+    public static String serializeItems(ItemStack... items) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("items", Arrays.asList(items));
+        return config.saveToString();
+    }
+
+    /**
+     * This deserializes {@link ItemStack ItemStacks} that were serialized via {@link #serializeItems(ItemStack...)}.
+     *
+     * @param value
+     *            The serialized {@link ItemStack ItemStacks}
+     * @return The deserialized {@link ItemStack ItemStacks}
+     */
+    public static ItemStack[] deserializeItems(String value) {
+        YamlConfiguration config = new YamlConfiguration();
+
+        try {
+            config.loadFromString(value);
+        } catch (InvalidConfigurationException x) {
+            throw new IllegalArgumentException("Invalid items: " + value, x);
+        }
+
+        List<ItemStack> items = new ArrayList<>();
+
+        for (Object item : config.getList("items", new ArrayList<>())) {
+            if (item instanceof ItemStack) {
+                items.add((ItemStack) item);
+            }
+        }
+
+        return items.toArray(new ItemStack[0]);
+    }
+
+}
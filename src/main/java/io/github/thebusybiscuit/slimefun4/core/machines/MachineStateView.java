@@ -0,0 +1,180 @@
+package io.github.thebusybiscuit.slimefun4.core.machines;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import org.bukkit.Location;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link MachineStateView} exposes the {@link MachineState MachineStates} of all machines of one kind
+ * as a {@link Map}. Our machines used to keep their operations and progress in public static {@link Map Maps},
+ * these views keep addons which still use those {@link Map Maps} working.
+ * <p>
+ * Every lookup goes through the {@link MachineStateStore} of the machine at the given {@link Location}.
+ * Iterating over a view only covers loaded chunks and works on a snapshot.
+ *
+ * @param <K>
+ *            The type of key, a {@link Location} or a block
+ * @param <T>
+ *            The type of operation
+ * @param <V>
+ *            The type of value, either the operation or the remaining ticks
+ * @deprecated Use the {@link MachineState} of the machine instead
+ */
+@Deprecated
+public final class MachineStateView<K, T, V> extends AbstractMap<K, V> {
+
+    private final Class<? extends SlimefunItem> type;
+    private final Function<SlimefunItem, MachineStateStore<T>> stores;
+    private final Function<K, Location> toLocation;
+    private final Function<Location, K> fromLocation;
+    private final Function<MachineState<T>, V> getter;
+    private final Setter<T, V> setter;
+
+    private MachineStateView(Class<? extends SlimefunItem> type, Function<SlimefunItem, MachineStateStore<T>> stores, Function<K, Location> toLocation, Function<Location, K> fromLocation, Function<MachineState<T>, V> getter, Setter<T, V> setter) {
+        this.type = type;
+        this.stores = stores;
+        this.toLocation = toLocation;
+        this.fromLocation = fromLocation;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * This creates a view of the operations of all machines of the given type.
+     *
+     * @param type
+     *            The class of the machines
+     * @param stores
+     *            Returns the {@link MachineStateStore} of a machine
+     * @param toLocation
+     *            Turns a key into a {@link Location}
+     * @param fromLocation
+     *            Turns a {@link Location} into a key
+     * @param ticks
+     *            How many ticks an operation takes
+     * @param <K>
+     *            The type of key
+     * @param <T>
+     *            The type of operation
+     * @return A view of all operations
+     */
+    public static <K, T> Map<K, T> operations(Class<? extends SlimefunItem> type, Function<SlimefunItem, MachineStateStore<T>> stores, Function<K, Location> toLocation, Function<Location, K> fromLocation, ToIntFunction<T> ticks) {
+        return new MachineStateView<>(type, stores, toLocation, fromLocation, MachineState::getOperation, (store, l, operation) -> store.start(l, operation, ticks.applyAsInt(operation)));
+    }
+
+    /**
+     * This creates a view of the remaining ticks of all machines of the given type.
+     * Putting a value only changes the progress of a running operation.
+     *
+     * @param type
+     *            The class of the machines
+     * @param stores
+     *            Returns the {@link MachineStateStore} of a machine
+     * @param toLocation
+     *            Turns a key into a {@link Location}
+     * @param fromLocation
+     *            Turns a {@link Location} into a key
+     * @param <K>
+     *            The type of key
+     * @param <T>
+     *            The type of operation
+     * @return A view of the progress of all operations
+     */
+    public static <K, T> Map<K, Integer> progress(Class<? extends SlimefunItem> type, Function<SlimefunItem, MachineStateStore<T>> stores, Function<K, Location> toLocation, Function<Location, K> fromLocation) {
+        return new MachineStateView<K, T, Integer>(type, stores, toLocation, fromLocation, MachineState::getRemainingTicks, (store, l, ticks) -> {
+            MachineState<T> state = store.get(l);
+
+            if (state != null) {
+                state.setRemainingTicks(ticks);
+            }
+        });
+    }
+
+    private MachineStateStore<T> getStore(Location l) {
+        SlimefunItem item = BlockStorage.check(l);
+        return type.isInstance(item) ? stores.apply(item) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Location getLocation(Object key) {
+        try {
+            return key == null ? null : toLocation.apply((K) key);
+        } catch (ClassCastException x) {
+            return null;
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        Location l = getLocation(key);
+        MachineStateStore<T> store = l == null ? null : getStore(l);
+
+        if (store == null) {
+            return null;
+        }
+
+        MachineState<T> state = store.get(l);
+        return state == null ? null : getter.apply(state);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Location l = toLocation.apply(key);
+        MachineStateStore<T> store = getStore(l);
+
+        if (store == null) {
+            return null;
+        }
+
+        V previous = get(key);
+        setter.set(store, l, value);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        V previous = get(key);
+
+        if (previous != null) {
+            // Operations and their progress were always removed together
+            Location l = getLocation(key);
+            getStore(l).finish(l);
+        }
+
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Map<K, V> snapshot = new HashMap<>();
+
+        for (SlimefunItem item : SlimefunPlugin.getRegistry().getEnabledSlimefunItems()) {
+            if (type.isInstance(item)) {
+                stores.apply(item).forEachLoaded((l, state) -> snapshot.put(fromLocation.apply(l), getter.apply(state)));
+            }
+        }
+
+        return snapshot.entrySet();
+    }
+
+    @FunctionalInterface
+    private interface Setter<T, V> {
+
+        void set(MachineStateStore<T> store, Location l, V value);
+
+    }
+
+}
@@ -3,14 +3,20 @@ package io.github.thebusybiscuit.slimefun4.core.networks;
 import io.github.thebusybiscuit.cscorelib2.config.Config;
 import io.github.thebusybiscuit.slimefun4.api.network.Network;
 import io.github.thebusybiscuit.slimefun4.implementation.listeners.NetworkListener;
+import io.github.thebusybiscuit.slimefun4.utils.collections.LongHashMap;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Location;
 import org.bukkit.Server;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The {@link NetworkManager} is responsible for holding all instances of {@link Network}
@@ -24,8 +30,14 @@ import java.util.Optional;
  */
 public class NetworkManager {
 
+    private static final Network[] NO_NETWORKS = new Network[0];
+
     private final int maxNodes;
-    private final List<Network> networks = new LinkedList<>();
+    private final List<Network> networks = new CopyOnWriteArrayList<>();
+    private final Set<Network> registeredNetworks = ConcurrentHashMap.newKeySet();
+
+    // Every connected Location points to the Networks that contain it, grouped by World
+    private final Map<UUID, LongHashMap<Network[]>> index = new ConcurrentHashMap<>();
 
     /**
      * This creates a new {@link NetworkManager} with the given capacity.
@@ -63,8 +75,9 @@ public class NetworkManager {
         }
 
         Validate.notNull(type, "Type must not be null");
-        for (Network network : networks) {
-            if (type.isInstance(network) && network.connectsTo(l)) {
+
+        for (Network network : getIndexedNetworks(l)) {
+            if (type.isInstance(network)) {
                 return Optional.of(type.cast(network));
             }
         }
@@ -81,8 +94,8 @@ public class NetworkManager {
         Validate.notNull(type, "Type must not be null");
         List<T> list = new ArrayList<>();
 
-        for (Network network : networks) {
-            if (type.isInstance(network) && network.connectsTo(l)) {
+        for (Network network : getIndexedNetworks(l)) {
+            if (type.isInstance(network)) {
                 list.add(type.cast(network));
             }
         }
@@ -90,14 +103,92 @@ public class NetworkManager {
         return list;
     }
 
+    private static long getBlockKey(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    private Network[] getIndexedNetworks(Location l) {
+        LongHashMap<Network[]> world = index.get(l.getWorld().getUID());
+
+        if (world == null) {
+            return NO_NETWORKS;
+        }
+
+        Network[] array = world.get(getBlockKey(l.getBlockX(), l.getBlockY(), l.getBlockZ()));
+        return array == null ? NO_NETWORKS : array;
+    }
+
+    /**
+     * This adds the given {@link Location} to our index, so that the given {@link Network}
+     * can be found from that {@link Location}.
+     * This is called by {@link Network} whenever it connects to a new {@link Location}.
+     *
+     * @param network
+     *            The {@link Network}
+     * @param l
+     *            The {@link Location} that is now connected to this {@link Network}
+     */
+    public synchronized void indexLocation(Network network, Location l) {
+        // Unregistered Networks will be discarded anyway, indexing them would only leak memory
+        if (registeredNetworks.contains(network)) {
+            LongHashMap<Network[]> world = index.computeIfAbsent(l.getWorld().getUID(), id -> new LongHashMap<>());
+            long key = getBlockKey(l.getBlockX(), l.getBlockY(), l.getBlockZ());
+            Network[] array = world.get(key);
+
+            if (array == null) {
+                world.put(key, new Network[]{network});
+            } else {
+                for (Network indexed : array) {
+                    if (indexed == network) {
+                        return;
+                    }
+                }
+
+                Network[] copy = Arrays.copyOf(array, array.length + 1);
+                copy[array.length] = network;
+                world.put(key, copy);
+            }
+        }
+    }
+
+    private void removeFromIndex(Network network, Location l) {
+        LongHashMap<Network[]> world = index.get(l.getWorld().getUID());
+
+        if (world == null) {
+            return;
+        }
+
+        long key = getBlockKey(l.getBlockX(), l.getBlockY(), l.getBlockZ());
+        Network[] array = world.get(key);
+
+        if (array != null) {
+            List<Network> list = new ArrayList<>(Arrays.asList(array));
+
+            if (list.remove(network)) {
+                if (list.isEmpty()) {
+                    world.remove(key);
+                } else {
+                    world.put(key, list.toArray(NO_NETWORKS));
+                }
+            }
+        }
+    }
+
     /**
      * This registers a given {@link Network}.
      *
      * @param network The {@link Network} to register
      */
-    public void registerNetwork(Network network) {
+    public synchronized void registerNetwork(Network network) {
         Validate.notNull(network, "Cannot register a null Network");
-        networks.add(network);
+
+        if (registeredNetworks.add(network)) {
+            networks.add(network);
+
+            for (Location l : network.getConnectedLocations()) {
+                indexLocation(network, l);
+            }
+        }
     }
 
     /**
@@ -105,19 +196,27 @@ public class NetworkManager {
      *
      * @param network The {@link Network} to remove
      */
-    public void unregisterNetwork(Network network) {
+    public synchronized void unregisterNetwork(Network network) {
         Validate.notNull(network, "Cannot unregister a null Network");
-        networks.remove(network);
+
+        if (registeredNetworks.remove(network)) {
+            networks.remove(network);
+
+            for (Location l : network.getConnectedLocations()) {
+                removeFromIndex(network, l);
+            }
+        }
     }
 
     /**
      * This method updates every {@link Network} found at the given {@link Location}.
      * More precisely, {@link Network#markDirty(Location)} will be called.
+     * Only the {@link Network Networks} that are actually connected to this {@link Location} are affected.
      *
      * @param l The {@link Location} to update
      */
     public void updateAllNetworks(Location l) {
-        for (Network network : getNetworksFromLocation(l, Network.class)) {
+        for (Network network : getIndexedNetworks(l)) {
             network.markDirty(l);
         }
     }
@@ -0,0 +1,195 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * A {@link CargoFilter} is the compiled whitelist or blacklist of a cargo node.
+ * <p>
+ * Every template item of the node is reduced to an {@link ItemFingerprint} of its {@link Material}, display name
+ * and (optionally) lore, the same properties {@link SlimefunUtils#isItemSimilar(ItemStack, ItemStack, boolean)}
+ * looks at. Testing an item is then a single hash lookup instead of a comparison against every template.
+ * Whitelists additionally remember the smallest amount of each template, items have to come in stacks
+ * of at least that amount to pass.
+ * <p>
+ * Filters are cached per node and have to be invalidated via {@link #invalidate(Location)} whenever
+ * the settings or template items of that node change. While a player has the menu of a node open,
+ * its filter is compiled from scratch every time, so any changes take effect immediately.
+ * Nodes report this via {@link #onMenuOpen(Location)} and {@link #onMenuClose(Location)}.
+ *
+ * @see CargoUtils
+ */
+public final class CargoFilter {
+
+    private static final CargoFilter ACCEPT_ALL = new CargoFilter(false, Collections.emptyMap());
+    private static final CargoFilter REJECT_ALL = new CargoFilter(true, Collections.emptyMap());
+
+    private static final Map<Location, CargoFilter> filters = new ConcurrentHashMap<>();
+    private static final Map<Location, Integer> openMenus = new ConcurrentHashMap<>();
+
+    private final boolean whitelist;
+    private final boolean checkLore;
+    private final Map<ItemFingerprint, Integer> templates;
+
+    private CargoFilter(boolean whitelist, Map<ItemFingerprint, Integer> templates) {
+        this(whitelist, false, templates);
+    }
+
+    private CargoFilter(boolean whitelist, boolean checkLore, Map<ItemFingerprint, Integer> templates) {
+        this.whitelist = whitelist;
+        this.checkLore = checkLore;
+        this.templates = templates;
+    }
+
+    /**
+     * This tests whether the given {@link ItemStack} passes this filter.
+     *
+     * @param item
+     *            The {@link ItemStack} to test
+     * @return Whether this item may pass
+     */
+    boolean test(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return false;
+        }
+
+        if (templates.isEmpty()) {
+            return !whitelist;
+        }
+
+        Integer amount = templates.get(new ItemFingerprint(item, checkLore));
+
+        if (whitelist) {
+            return amount != null && item.getAmount() >= amount;
+        } else {
+            return amount == null;
+        }
+    }
+
+    /**
+     * This returns the {@link CargoFilter} of the given cargo node.
+     *
+     * @param node
+     *            The {@link Block} of the cargo node
+     * @return The {@link CargoFilter} of this node
+     */
+    static CargoFilter get(Block node) {
+        Location l = node.getLocation();
+        CargoFilter filter = filters.get(l);
+
+        if (filter != null) {
+            return filter;
+        }
+
+        filter = compile(node);
+
+        if (filter != REJECT_ALL && !openMenus.containsKey(l)) {
+            filters.put(l, filter);
+        } else {
+            filters.remove(l);
+        }
+
+        return filter;
+    }
+
+    /**
+     * This returns the cached {@link CargoFilter} of the cargo node at the given {@link Location}.
+     * Unlike {@link #get(Block)}, this never compiles a filter, so it is safe to call from another {@link Thread}.
+     *
+     * @param l
+     *            The {@link Location} of the cargo node
+     * @return The cached {@link CargoFilter} or null if it has to be compiled on the main thread first
+     */
+    static CargoFilter getCached(Location l) {
+        return filters.get(l);
+    }
+
+    /**
+     * This removes the cached {@link CargoFilter} of the cargo node at the given {@link Location}.
+     * It will be compiled again the next time it is needed.
+     *
+     * @param l
+     *            The {@link Location} of the cargo node
+     */
+    public static void invalidate(Location l) {
+        filters.remove(l);
+    }
+
+    /**
+     * This marks the menu of the cargo node at the given {@link Location} as opened by a {@link Player}.
+     * Its {@link CargoFilter} will not be cached until every {@link Player} closed it again.
+     *
+     * @param l
+     *            The {@link Location} of the cargo node
+     */
+    public static void onMenuOpen(Location l) {
+        openMenus.merge(l, 1, Integer::sum);
+        filters.remove(l);
+    }
+
+    /**
+     * This marks the menu of the cargo node at the given {@link Location} as closed by a {@link Player}.
+     *
+     * @param l
+     *            The {@link Location} of the cargo node
+     */
+    public static void onMenuClose(Location l) {
+        openMenus.computeIfPresent(l, (key, viewers) -> viewers > 1 ? viewers - 1 : null);
+        filters.remove(l);
+    }
+
+    private static CargoFilter compile(Block node) {
+        // Store the returned Config instance to avoid heavy calls
+        Config blockInfo = BlockStorage.getLocationInfo(node.getLocation());
+        String id = blockInfo.getString("id");
+
+        if ("CARGO_NODE_OUTPUT".equals(id)) {
+            return ACCEPT_ALL;
+        }
+
+        try {
+            BlockMenu menu = BlockStorage.getInventory(node.getLocation());
+
+            if (menu == null) {
+                return REJECT_ALL;
+            }
+
+            boolean lore = "true".equals(blockInfo.getString("filter-lore"));
+            boolean whitelist = "whitelist".equals(blockInfo.getString("filter-type"));
+            Map<ItemFingerprint, Integer> templates = new HashMap<>();
+
+            for (int slot : CargoUtils.getWhitelistBlacklistSlots()) {
+                ItemStack template = menu.getItemInSlot(slot);
+
+                if (template != null) {
+                    templates.merge(new ItemFingerprint(template, lore), template.getAmount(), Math::min);
+                }
+            }
+
+            if (whitelist && templates.isEmpty()) {
+                return REJECT_ALL;
+            }
+
+            return new CargoFilter(whitelist, lore, templates);
+        } catch (Exception x) {
+            Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Exception occurred while trying to filter items for a Cargo Node (" + id + ") at " + new BlockPosition(node));
+            return REJECT_ALL;
+        }
+    }
+
+}
@@ -2,21 +2,25 @@ package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
 import io.github.thebusybiscuit.slimefun4.api.network.Network;
 import io.github.thebusybiscuit.slimefun4.api.network.NetworkComponent;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoRoutePlanner.CargoRoute;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.holograms.SimpleHologram;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockDataKey;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.Slimefun;
 import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -38,11 +42,12 @@ public class CargoNet extends ChestTerminalNetwork {
 
     private static final int RANGE = 5;
     private static final int TICK_DELAY = SlimefunPlugin.getCfg().getInt("networks.cargo-ticker-delay");
+    private static final BlockDataKey FREQUENCY = BlockDataKey.of("frequency");
 
     private final Set<Location> inputNodes = new HashSet<>();
     private final Set<Location> outputNodes = new HashSet<>();
 
-    private final Map<Location, Integer> roundRobin = new HashMap<>();
+    private final Map<Location, Integer> roundRobin = new ConcurrentHashMap<>();
     private int tickDelayThreshold = 0;
 
     public static CargoNet getNetworkFromLocation(Location l) {
@@ -171,8 +176,12 @@ public class CargoNet extends ChestTerminalNetwork {
                 display();
             }
 
-            SlimefunPlugin.getProfiler().scheduleEntries(1 + inputNodes.size());
-            Slimefun.runSync(() -> run(inputs, outputs, chestTerminalInputs, chestTerminalOutputs));
+            // Plan as many transfers as possible right here, so the main thread only has to commit them
+            Map<Location, CargoRoute> routes = new HashMap<>();
+            Map<Location, Integer> roundRobinIndexes = new HashMap<>();
+            Set<Location> plannedNodes = planRoutes(inputs, outputs, routes, roundRobinIndexes);
+
+            Slimefun.runSync(() -> run(inputs, outputs, routes, roundRobinIndexes, plannedNodes, chestTerminalInputs, chestTerminalOutputs));
         }
     }
 
@@ -229,7 +238,113 @@ public class CargoNet extends ChestTerminalNetwork {
         return output;
     }
 
-    private void run(Map<Location, Integer> inputs, Map<Integer, List<Location>> outputs, Set<Location> chestTerminalInputs, Set<Location> chestTerminalOutputs) {
+    /**
+     * This plans the transfers of every input node whose source and destinations are all
+     * Slimefun inventories. This does not need to run on the main thread.
+     *
+     * @param inputs
+     *            The input nodes and their frequencies
+     * @param outputs
+     *            The output nodes by frequency
+     * @param routes
+     *            The {@link Map} the planned {@link CargoRoute CargoRoutes} are put into
+     * @param roundRobinIndexes
+     *            The {@link Map} the round-robin indexes of the planned routes are put into,
+     *            they only take effect once their {@link CargoRoute} was committed
+     * @return The input nodes that were planned, any other node has to be routed on the main thread
+     */
+    private Set<Location> planRoutes(Map<Location, Integer> inputs, Map<Integer, List<Location>> outputs, Map<Location, CargoRoute> routes, Map<Location, Integer> roundRobinIndexes) {
+        CargoRoutePlanner planner = new CargoRoutePlanner();
+        Set<Location> plannedNodes = new HashSet<>();
+
+        try {
+            for (Map.Entry<Location, Integer> entry : inputs.entrySet()) {
+                if (planRoute(planner, entry.getKey(), outputs.get(entry.getValue()), routes, roundRobinIndexes)) {
+                    plannedNodes.add(entry.getKey());
+                }
+            }
+        } catch (Exception x) {
+            // Inventories can change while we are reading them, simply route everything on the main thread then
+            routes.clear();
+            roundRobinIndexes.clear();
+            plannedNodes.clear();
+        }
+
+        return plannedNodes;
+    }
+
+    private boolean planRoute(CargoRoutePlanner planner, Location inputNode, List<Location> outputs, Map<Location, CargoRoute> routes, Map<Location, Integer> roundRobinIndexes) {
+        DirtyChestMenu source = getAttachedMenu(inputNode);
+        CargoFilter sourceFilter = CargoFilter.getCached(inputNode);
+
+        // Filters that have not been compiled yet can only be compiled on the main thread
+        if (source == null || sourceFilter == null) {
+            return false;
+        }
+
+        Map<Location, DirtyChestMenu> destinations = new HashMap<>();
+        Map<Location, CargoFilter> destinationFilters = new HashMap<>();
+
+        if (outputs != null) {
+            for (Location output : outputs) {
+                DirtyChestMenu menu = getAttachedMenu(output);
+                CargoFilter filter = CargoFilter.getCached(output);
+
+                if (menu == null || filter == null) {
+                    return false;
+                }
+
+                destinations.put(output, menu);
+                destinationFilters.put(output, filter);
+            }
+        }
+
+        CargoRoute route = planner.withdraw(sourceFilter, source, getAttachedLocation(inputNode));
+
+        if (route == null) {
+            return true;
+        }
+
+        if (outputs != null) {
+            Deque<Location> queue = new LinkedList<>(outputs);
+
+            if ("true".equals(BlockStorage.getLocationInfo(inputNode, "round-robin"))) {
+                roundRobinIndexes.put(inputNode, roundRobinSort(inputNode, queue));
+            }
+
+            for (Location output : queue) {
+                route.insert(destinationFilters.get(output), destinations.get(output));
+
+                if (!route.hasItemsLeft()) {
+                    break;
+                }
+            }
+        }
+
+        route.finish();
+        routes.put(inputNode, route);
+        return true;
+    }
+
+    /**
+     * This returns the Slimefun inventory a node is attached to without accessing the {@link org.bukkit.World}.
+     * This only works after the node has been visited on the main thread once, so its facing is cached.
+     *
+     * @param node
+     *            The {@link Location} of our cargo node
+     * @return The attached {@link DirtyChestMenu} or null if it cannot be determined off the main thread
+     */
+    private DirtyChestMenu getAttachedMenu(Location node) {
+        Location target = getAttachedLocation(node);
+        return target == null ? null : CargoRoutePlanner.getChestMenu(target);
+    }
+
+    private Location getAttachedLocation(Location node) {
+        BlockFace face = connectorCache.get(node);
+        return face == null ? null : node.clone().add(face.getModX(), face.getModY(), face.getModZ());
+    }
+
+    private void run(Map<Location, Integer> inputs, Map<Integer, List<Location>> outputs, Map<Location, CargoRoute> routes, Map<Location, Integer> roundRobinIndexes, Set<Location> plannedNodes, Set<Location> chestTerminalInputs, Set<Location> chestTerminalOutputs) {
         long timestamp = System.nanoTime();
 
         // Chest Terminal Code
@@ -242,10 +357,20 @@ public class CargoNet extends ChestTerminalNetwork {
         for (Map.Entry<Location, Integer> entry : inputs.entrySet()) {
             long nodeTimestamp = System.nanoTime();
             Location input = entry.getKey();
-            Optional<Block> attachedBlock = getAttachedBlock(input.getBlock());
 
-            if (attachedBlock.isPresent()) {
-                routeItems(input, attachedBlock.get(), entry.getValue(), outputs);
+            if (plannedNodes.contains(input)) {
+                CargoRoute route = routes.get(input);
+
+                // The round-robin cursor only moves on once the items actually went somewhere
+                if (route != null && route.commit() && roundRobinIndexes.containsKey(input)) {
+                    roundRobin.put(input, roundRobinIndexes.get(input));
+                }
+            } else {
+                Optional<Block> attachedBlock = getAttachedBlock(input.getBlock());
+
+                if (attachedBlock.isPresent()) {
+                    routeItems(input, attachedBlock.get(), entry.getValue(), outputs);
+                }
             }
 
             // This will prevent this timings from showing up for the Cargo Manager
@@ -309,7 +434,7 @@ public class CargoNet extends ChestTerminalNetwork {
         boolean roundrobin = "true".equals(cfg.getString("round-robin"));
 
         if (roundrobin) {
-            roundRobinSort(inputNode, destinations);
+            roundRobin.put(inputNode, roundRobinSort(inputNode, destinations));
         }
 
         for (Location output : destinations) {
@@ -335,8 +460,9 @@ public class CargoNet extends ChestTerminalNetwork {
      *            The {@link Location} of the input node
      * @param outputNodes
      *            A {@link Deque} of {@link Location Locations} of the output nodes
+     * @return The round-robin index to use the next time this input node is routed
      */
-    private void roundRobinSort(Location inputNode, Deque<Location> outputNodes) {
+    private int roundRobinSort(Location inputNode, Deque<Location> outputNodes) {
         int index = roundRobin.getOrDefault(inputNode, 0);
 
         if (index < outputNodes.size()) {
@@ -351,7 +477,7 @@ public class CargoNet extends ChestTerminalNetwork {
             index = 1;
         }
 
-        roundRobin.put(inputNode, index);
+        return index;
     }
 
     /**
@@ -366,8 +492,7 @@ public class CargoNet extends ChestTerminalNetwork {
      */
     private static int getFrequency(Location node) {
         try {
-            String str = BlockStorage.getLocationInfo(node).getString("frequency");
-            return str == null ? 0 : Integer.parseInt(str);
+            return BlockStorage.getInt(node, FREQUENCY, 0);
         } catch (Exception x) {
             Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while parsing a Cargo Node Frequency (" + node.getWorld().getName() + " - " + node.getBlockX() + "," + node.getBlockY() + "," + +node.getBlockZ() + ")");
             return 0;
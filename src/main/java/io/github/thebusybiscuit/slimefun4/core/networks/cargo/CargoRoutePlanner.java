@@ -0,0 +1,254 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
+import me.mrCookieSlime.Slimefun.api.item_transport.ItemTransportFlow;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link CargoRoutePlanner} plans the item transfers of a {@link CargoNet} off the main thread.
+ * <p>
+ * Every {@link DirtyChestMenu} that is touched gets snapshotted into a lightweight slot array the first
+ * time one of its slots is read. Transfers are then simulated against these snapshots, the same way
+ * {@link CargoUtils#withdraw(Block, Block)} and {@link CargoUtils#insert(Block, Block, ItemStack)} would perform them.
+ * The outcome of each input node is a {@link CargoRoute}: a compact list of slot deltas that is
+ * re-validated and applied on the main thread via {@link CargoRoute#commit()}.
+ * <p>
+ * Only Slimefun inventories can be planned this way, vanilla inventories can only be accessed
+ * from the main thread and are still routed there directly. Items are only tested against
+ * already compiled {@link CargoFilter CargoFilters}, the planner never reads the menu of a node itself.
+ * A planner only lives for a single tick of its {@link CargoNet}.
+ *
+ * @see CargoRoute
+ * @see CargoNet
+ */
+final class CargoRoutePlanner {
+
+    private final Map<DirtyChestMenu, Map<Integer, ItemStack>> snapshots = new IdentityHashMap<>();
+
+    /**
+     * This returns the {@link DirtyChestMenu} at the given {@link Location}.
+     * Unlike {@link CargoUtils#getChestMenu(Block)}, this will never load a {@link DirtyChestMenu},
+     * so it is safe to call from another {@link Thread}.
+     *
+     * @param l
+     *            The {@link Location} of the inventory
+     * @return The {@link DirtyChestMenu} at that {@link Location} or null if there is none
+     */
+    static DirtyChestMenu getChestMenu(Location l) {
+        BlockStorage storage = BlockStorage.getStorage(l.getWorld());
+
+        if (storage != null && storage.hasInventory(l)) {
+            return BlockStorage.getInventory(l);
+        }
+
+        return BlockStorage.getUniversalInventory(l);
+    }
+
+    /**
+     * This plans to withdraw the first {@link ItemStack} that passes the filter of the given input node.
+     *
+     * @param filter
+     *            The compiled {@link CargoFilter} of the input node
+     * @param menu
+     *            The {@link DirtyChestMenu} attached to this node
+     * @param l
+     *            The {@link Location} of that {@link DirtyChestMenu}
+     * @return A new {@link CargoRoute} holding the withdrawn {@link ItemStack} or null if nothing could be withdrawn
+     */
+    CargoRoute withdraw(CargoFilter filter, DirtyChestMenu menu, Location l) {
+        for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
+            ItemStack item = getItem(menu, slot);
+
+            if (filter.test(item)) {
+                CargoRoute route = new CargoRoute(menu, slot, l, item.clone());
+                route.setItem(menu, slot, null);
+                return route;
+            }
+        }
+
+        return null;
+    }
+
+    private ItemStack getItem(DirtyChestMenu menu, int slot) {
+        Map<Integer, ItemStack> snapshot = snapshots.computeIfAbsent(menu, key -> new HashMap<>());
+
+        if (snapshot.containsKey(slot)) {
+            return snapshot.get(slot);
+        }
+
+        ItemStack item = menu.getItemInSlot(slot);
+        ItemStack copy = item == null || item.getType() == Material.AIR ? null : item.clone();
+        snapshot.put(slot, copy);
+        return copy;
+    }
+
+    /**
+     * A {@link CargoRoute} holds the planned transfers of a single input node.
+     */
+    final class CargoRoute {
+
+        private final List<SlotDelta> deltas = new ArrayList<>();
+        private final DirtyChestMenu source;
+        private final int sourceSlot;
+        private final Location sourceLocation;
+
+        private ItemStack stack;
+
+        private CargoRoute(DirtyChestMenu source, int sourceSlot, Location sourceLocation, ItemStack stack) {
+            this.source = source;
+            this.sourceSlot = sourceSlot;
+            this.sourceLocation = sourceLocation;
+            this.stack = stack;
+        }
+
+        /**
+         * This returns whether there are still items left that have not been planned to go anywhere.
+         *
+         * @return Whether there are items left
+         */
+        boolean hasItemsLeft() {
+            return stack != null;
+        }
+
+        /**
+         * This plans to insert the remaining items into the given {@link DirtyChestMenu}.
+         *
+         * @param filter
+         *            The compiled {@link CargoFilter} of the output node
+         * @param menu
+         *            The {@link DirtyChestMenu} attached to this node
+         */
+        void insert(CargoFilter filter, DirtyChestMenu menu) {
+            if (!filter.test(stack)) {
+                return;
+            }
+
+            ItemStackWrapper wrapper = new ItemStackWrapper(stack);
+
+            for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.INSERT, stack)) {
+                ItemStack itemInSlot = getItem(menu, slot);
+
+                if (itemInSlot == null) {
+                    setItem(menu, slot, stack);
+                    stack = null;
+                    return;
+                }
+
+                int maxStackSize = itemInSlot.getType().getMaxStackSize();
+                int currentAmount = itemInSlot.getAmount();
+
+                if (SlimefunUtils.isItemSimilar(itemInSlot, wrapper, true, false) && currentAmount < maxStackSize) {
+                    int amount = currentAmount + stack.getAmount();
+                    ItemStack result = itemInSlot.clone();
+                    result.setAmount(Math.min(amount, maxStackSize));
+
+                    if (amount > maxStackSize) {
+                        stack.setAmount(amount - maxStackSize);
+                    } else {
+                        stack = null;
+                    }
+
+                    setItem(menu, slot, result);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * This puts any remaining items back into the slot they were withdrawn from.
+         * Should that slot have been filled in the meantime, they will be dropped on {@link #commit()} instead.
+         */
+        void finish() {
+            if (stack != null && getItem(source, sourceSlot) == null) {
+                setItem(source, sourceSlot, stack);
+                stack = null;
+            }
+        }
+
+        /**
+         * This applies all planned slot deltas.
+         * It has to be called on the main thread.
+         * <p>
+         * Every slot is validated first, if any of them has changed since it was snapshotted,
+         * the route is dropped as a whole, so items can never be lost or duplicated.
+         *
+         * @return Whether the route could be applied
+         */
+        boolean commit() {
+            for (SlotDelta delta : deltas) {
+                if (!delta.isValid()) {
+                    return false;
+                }
+            }
+
+            for (SlotDelta delta : deltas) {
+                delta.apply();
+            }
+
+            if (stack != null) {
+                sourceLocation.getWorld().dropItem(sourceLocation.clone().add(0, 1, 0), stack);
+            }
+
+            return true;
+        }
+
+        private void setItem(DirtyChestMenu menu, int slot, ItemStack item) {
+            ItemStack previous = getItem(menu, slot);
+            snapshots.get(menu).put(slot, item);
+
+            for (SlotDelta delta : deltas) {
+                if (delta.menu == menu && delta.slot == slot) {
+                    delta.after = item;
+                    return;
+                }
+            }
+
+            deltas.add(new SlotDelta(menu, slot, previous, item));
+        }
+
+    }
+
+    private static final class SlotDelta {
+
+        private final DirtyChestMenu menu;
+        private final int slot;
+        private final ItemStack before;
+
+        private ItemStack after;
+
+        private SlotDelta(DirtyChestMenu menu, int slot, ItemStack before, ItemStack after) {
+            this.menu = menu;
+            this.slot = slot;
+            this.before = before;
+            this.after = after;
+        }
+
+        private boolean isValid() {
+            ItemStack item = menu.getItemInSlot(slot);
+
+            if (item == null || item.getType() == Material.AIR) {
+                return before == null;
+            }
+
+            return item.equals(before);
+        }
+
+        private void apply() {
+            menu.replaceExistingItem(slot, after == null ? null : after.clone());
+        }
+
+    }
+
+}
@@ -1,14 +1,10 @@
 package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
-import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.MinecraftVersion;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
-import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
-import me.mrCookieSlime.Slimefun.api.Slimefun;
-import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
 import me.mrCookieSlime.Slimefun.api.item_transport.ItemTransportFlow;
 import org.bukkit.Material;
@@ -17,10 +13,6 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.inventory.*;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.logging.Level;
-
 final class CargoUtils {
 
     // Whitelist or blacklist slots
@@ -331,60 +323,7 @@ final class CargoUtils {
             return false;
         }
 
-        // Store the returned Config instance to avoid heavy calls
-        Config blockInfo = BlockStorage.getLocationInfo(block.getLocation());
-        String id = blockInfo.getString("id");
-
-        if (id.equals("CARGO_NODE_OUTPUT")) {
-            return true;
-        }
-
-        try {
-            BlockMenu menu = BlockStorage.getInventory(block.getLocation());
-            if (menu == null) {
-                return false;
-            }
-
-            boolean lore = "true".equals(blockInfo.getString("filter-lore"));
-            ItemStackWrapper wrapper = new ItemStackWrapper(item);
-
-            if ("whitelist".equals(blockInfo.getString("filter-type"))) {
-                List<ItemStack> templateItems = new LinkedList<>();
-
-                for (int slot : FILTER_SLOTS) {
-                    ItemStack template = menu.getItemInSlot(slot);
-
-                    if (template != null) {
-                        templateItems.add(template);
-                    }
-                }
-
-                if (templateItems.isEmpty()) {
-                    return false;
-                }
-
-                for (ItemStack stack : templateItems) {
-                    if (SlimefunUtils.isItemSimilar(wrapper, stack, lore)) {
-                        return true;
-                    }
-                }
-
-                return false;
-            } else {
-                for (int slot : FILTER_SLOTS) {
-                    ItemStack itemInSlot = menu.getItemInSlot(slot);
-
-                    if (itemInSlot != null && SlimefunUtils.isItemSimilar(wrapper, itemInSlot, lore, false)) {
-                        return false;
-                    }
-                }
-
-                return true;
-            }
-        } catch (Exception x) {
-            Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Exception occurred while trying to filter items for a Cargo Node (" + id + ") at " + new BlockPosition(block));
-            return false;
-        }
+        return CargoFilter.get(block).test(item);
     }
 
     /**
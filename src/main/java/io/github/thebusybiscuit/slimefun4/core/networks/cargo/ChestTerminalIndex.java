@@ -0,0 +1,164 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import org.bukkit.Location;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link ChestTerminalIndex} keeps track of how many items of every kind are available
+ * to the ChestTerminals of a {@link ChestTerminalNetwork}.
+ * <p>
+ * Items are grouped by their {@link ItemFingerprint}. Every provider contributes its own counts,
+ * when a provider is updated only the difference to its previous contribution is applied to the totals.
+ * The version of this index is only incremented when a total actually changed, so terminals
+ * do not need to be redrawn while their contents stay the same.
+ *
+ * @see ChestTerminalNetwork
+ */
+final class ChestTerminalIndex {
+
+    private final Map<Location, Map<ItemFingerprint, ItemStackAndInteger>> providers = new HashMap<>();
+    private final Map<ItemFingerprint, ItemStackAndInteger> totals = new HashMap<>();
+
+    private List<IndexedItem> sorted = Collections.emptyList();
+    private boolean outdated = false;
+    private int version = 0;
+
+    /**
+     * This replaces the contribution of the given provider.
+     *
+     * @param provider
+     *            The {@link Location} of the provider node
+     * @param contents
+     *            The items this provider currently offers, grouped by their {@link ItemFingerprint}
+     */
+    void update(Location provider, Map<ItemFingerprint, ItemStackAndInteger> contents) {
+        Map<ItemFingerprint, ItemStackAndInteger> previous = providers.put(provider, contents);
+
+        if (previous != null) {
+            for (Map.Entry<ItemFingerprint, ItemStackAndInteger> entry : previous.entrySet()) {
+                ItemStackAndInteger current = contents.get(entry.getKey());
+                int amount = current == null ? 0 : current.getInt();
+                add(entry.getKey(), entry.getValue().getItem(), amount - entry.getValue().getInt());
+            }
+        }
+
+        for (Map.Entry<ItemFingerprint, ItemStackAndInteger> entry : contents.entrySet()) {
+            if (previous == null || !previous.containsKey(entry.getKey())) {
+                add(entry.getKey(), entry.getValue().getItem(), entry.getValue().getInt());
+            }
+        }
+    }
+
+    /**
+     * This drops the contribution of every provider that is no longer part of the network.
+     *
+     * @param currentProviders
+     *            The providers that are still connected
+     */
+    void retain(Set<Location> currentProviders) {
+        Iterator<Map.Entry<Location, Map<ItemFingerprint, ItemStackAndInteger>>> iterator = providers.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Location, Map<ItemFingerprint, ItemStackAndInteger>> entry = iterator.next();
+
+            if (!currentProviders.contains(entry.getKey())) {
+                iterator.remove();
+
+                for (Map.Entry<ItemFingerprint, ItemStackAndInteger> item : entry.getValue().entrySet()) {
+                    add(item.getKey(), item.getValue().getItem(), -item.getValue().getInt());
+                }
+            }
+        }
+    }
+
+    private void add(ItemFingerprint fingerprint, ItemStack item, int amount) {
+        if (amount == 0) {
+            return;
+        }
+
+        ItemStackAndInteger total = totals.get(fingerprint);
+
+        if (total == null) {
+            totals.put(fingerprint, new ItemStackAndInteger(item.clone(), amount));
+        } else {
+            total.add(amount);
+
+            if (total.getInt() <= 0) {
+                totals.remove(fingerprint);
+            }
+        }
+
+        outdated = true;
+        version++;
+    }
+
+    /**
+     * This returns every available item, sorted by their amount in descending order.
+     *
+     * @return The available items
+     */
+    List<IndexedItem> getItems() {
+        if (outdated) {
+            List<IndexedItem> list = new ArrayList<>(totals.size());
+
+            for (Map.Entry<ItemFingerprint, ItemStackAndInteger> entry : totals.entrySet()) {
+                list.add(new IndexedItem(entry.getKey(), entry.getValue().getItem(), entry.getValue().getInt()));
+            }
+
+            list.sort(Comparator.comparingInt(item -> -item.getAmount()));
+            sorted = list;
+            outdated = false;
+        }
+
+        return sorted;
+    }
+
+    /**
+     * This returns the current version of this index.
+     * It changes whenever the amount of any item changed.
+     *
+     * @return The version of this index
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * An immutable view of one entry of a {@link ChestTerminalIndex}.
+     */
+    static final class IndexedItem {
+
+        private final ItemFingerprint fingerprint;
+        private final ItemStack item;
+        private final int amount;
+
+        private IndexedItem(ItemFingerprint fingerprint, ItemStack item, int amount) {
+            this.fingerprint = fingerprint;
+            this.item = item;
+            this.amount = amount;
+        }
+
+        ItemFingerprint getFingerprint() {
+            return fingerprint;
+        }
+
+        ItemStack getItem() {
+            return item;
+        }
+
+        int getAmount() {
+            return amount;
+        }
+
+    }
+
+}
@@ -4,6 +4,7 @@ import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
 import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.cscorelib2.math.DoubleHandler;
 import io.github.thebusybiscuit.slimefun4.api.network.Network;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.ChestTerminalIndex.IndexedItem;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
@@ -26,6 +27,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An abstract super class of {@link CargoNet} that handles interactions with ChestTerminal.
@@ -47,9 +49,13 @@ abstract class ChestTerminalNetwork extends Network {
     // This represents a Queue of requests to handle
     private final Queue<ItemRequest> itemRequests = new LinkedList<>();
 
+    // This keeps track of the items available to our terminals and what they are currently displaying
+    private final ChestTerminalIndex terminalIndex = new ChestTerminalIndex();
+    private final Map<Location, TerminalView> terminalViews = new HashMap<>();
+
     // This is a cache for the BlockFace a node is facing, so we don't need to request the
     // BlockData each time we visit a node
-    protected Map<Location, BlockFace> connectorCache = new HashMap<>();
+    protected Map<Location, BlockFace> connectorCache = new ConcurrentHashMap<>();
 
     protected ChestTerminalNetwork(Location regulator) {
         super(SlimefunPlugin.getNetworkManager(), regulator);
@@ -253,12 +259,16 @@ abstract class ChestTerminalNetwork extends Network {
     /**
      * This method updates every terminal on the network with {@link ItemStack ItemStacks}
      * found in any provider of the network.
+     * Terminal slots are only redrawn if the item or amount they display has changed.
      *
      * @param providers
      *            A {@link Set} of providers to this {@link ChestTerminalNetwork}
      */
     protected void updateTerminals(Set<Location> providers) {
-        List<ItemStackAndInteger> items = findAvailableItems(providers);
+        updateIndex(providers);
+
+        List<IndexedItem> items = terminalIndex.getItems();
+        terminalViews.keySet().retainAll(terminals);
 
         for (Location l : terminals) {
             BlockMenu terminal = BlockStorage.getInventory(l);
@@ -269,27 +279,42 @@ abstract class ChestTerminalNetwork extends Network {
                 BlockStorage.addBlockInfo(l, "page", String.valueOf(1));
             }
 
+            TerminalView view = terminalViews.get(l);
+
+            if (view == null || view.menu != terminal) {
+                view = new TerminalView(terminal);
+                terminalViews.put(l, view);
+            } else if (view.page == page && view.version == terminalIndex.getVersion()) {
+                // Nothing has changed since this page was drawn
+                continue;
+            }
+
+            view.page = page;
+            view.version = terminalIndex.getVersion();
+
             for (int i = 0; i < TERMINAL_SLOTS.length; i++) {
                 int slot = TERMINAL_SLOTS[i];
                 int index = i + (TERMINAL_SLOTS.length * (page - 1));
-                updateTerminal(l, terminal, slot, index, items);
+                IndexedItem item = items.size() > index ? items.get(index) : null;
+
+                if (view.update(i, item)) {
+                    updateTerminal(l, terminal, slot, item);
+                }
             }
         }
     }
 
-    private void updateTerminal(Location l, BlockMenu terminal, int slot, int index, List<ItemStackAndInteger> items) {
-        if (items.size() > index) {
-            ItemStackAndInteger item = items.get(index);
-
+    private void updateTerminal(Location l, BlockMenu terminal, int slot, IndexedItem item) {
+        if (item != null) {
             ItemStack stack = item.getItem().clone();
             stack.setAmount(1);
             ItemMeta im = stack.getItemMeta();
             List<String> lore = new ArrayList<>();
             lore.add("");
-            lore.add(ChatColors.color("&7Stored Items: &r" + DoubleHandler.getFancyDouble(item.getInt())));
+            lore.add(ChatColors.color("&7Stored Items: &r" + DoubleHandler.getFancyDouble(item.getAmount())));
 
             if (stack.getMaxStackSize() > 1) {
-                int amount = item.getInt() > stack.getMaxStackSize() ? stack.getMaxStackSize() : item.getInt();
+                int amount = item.getAmount() > stack.getMaxStackSize() ? stack.getMaxStackSize() : item.getAmount();
                 lore.add(ChatColors.color("&7<Left Click: Request 1 | Right Click: Request " + amount + ">"));
             } else {
                 lore.add(ChatColors.color("&7<Left Click: Request 1>"));
@@ -305,7 +330,7 @@ abstract class ChestTerminalNetwork extends Network {
             stack.setItemMeta(im);
             terminal.replaceExistingItem(slot, stack);
             terminal.addMenuClickHandler(slot, (p, sl, is, action) -> {
-                int amount = item.getInt() > item.getItem().getMaxStackSize() ? item.getItem().getMaxStackSize() : item.getInt();
+                int amount = item.getAmount() > item.getItem().getMaxStackSize() ? item.getItem().getMaxStackSize() : item.getAmount();
                 itemRequests.add(new ItemRequest(l, 44, new CustomItem(item.getItem(), action.isRightClicked() ? amount : 1), ItemTransportFlow.WITHDRAW));
                 return false;
             });
@@ -316,10 +341,11 @@ abstract class ChestTerminalNetwork extends Network {
         }
     }
 
-    private List<ItemStackAndInteger> findAvailableItems(Set<Location> providers) {
-        List<ItemStackAndInteger> items = new LinkedList<>();
+    private void updateIndex(Set<Location> providers) {
+        terminalIndex.retain(providers);
 
         for (Location l : providers) {
+            Map<ItemFingerprint, ItemStackAndInteger> items = new HashMap<>();
             Optional<Block> block = getAttachedBlock(l.getBlock());
 
             if (block.isPresent()) {
@@ -352,56 +378,77 @@ abstract class ChestTerminalNetwork extends Network {
                     }
                 }
             }
-        }
 
-        Collections.sort(items, Comparator.comparingInt(item -> -item.getInt()));
-        return items;
+            terminalIndex.update(l, items);
+        }
     }
 
-    private void gatherItemsFromBarrel(Location l, Config cfg, BlockMenu blockMenu, List<ItemStackAndInteger> items) {
+    private void gatherItemsFromBarrel(Location l, Config cfg, BlockMenu blockMenu, Map<ItemFingerprint, ItemStackAndInteger> items) {
         int stored = Integer.parseInt(cfg.getString("storedItems"));
 
         for (int slot : blockMenu.getPreset().getSlotsAccessedByItemTransport((DirtyChestMenu) blockMenu, ItemTransportFlow.WITHDRAW, null)) {
             ItemStack is = blockMenu.getItemInSlot(slot);
 
             if (is != null && CargoUtils.matchesFilter(l.getBlock(), is)) {
-                boolean add = true;
-
-                for (ItemStackAndInteger item : items) {
-                    if (SlimefunUtils.isItemSimilar(is, item.getItem(), true)) {
-                        add = false;
-                        item.add(is.getAmount() + stored);
-                    }
-                }
-
-                if (add) {
-                    items.add(new ItemStackAndInteger(is, is.getAmount() + stored));
-                }
+                add(is, is.getAmount() + stored, items);
             }
         }
     }
 
-    private void handleWithdraw(DirtyChestMenu menu, List<ItemStackAndInteger> items, Location l) {
+    private void handleWithdraw(DirtyChestMenu menu, Map<ItemFingerprint, ItemStackAndInteger> items, Location l) {
         for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
             filter(menu.getItemInSlot(slot), items, l);
         }
     }
 
-    private void filter(ItemStack stack, List<ItemStackAndInteger> items, Location node) {
+    private void filter(ItemStack stack, Map<ItemFingerprint, ItemStackAndInteger> items, Location node) {
         if (stack != null && CargoUtils.matchesFilter(node.getBlock(), stack)) {
-            boolean add = true;
+            add(stack, stack.getAmount(), items);
+        }
+    }
 
-            for (ItemStackAndInteger item : items) {
-                if (SlimefunUtils.isItemSimilar(stack, item.getItem(), true)) {
-                    add = false;
-                    item.add(stack.getAmount());
-                }
-            }
+    private void add(ItemStack stack, int amount, Map<ItemFingerprint, ItemStackAndInteger> items) {
+        ItemFingerprint fingerprint = new ItemFingerprint(stack, true);
+        ItemStackAndInteger item = items.get(fingerprint);
+
+        if (item == null) {
+            items.put(fingerprint, new ItemStackAndInteger(stack, amount));
+        } else {
+            item.add(amount);
+        }
+    }
+
+    /**
+     * This remembers what is currently displayed in the slots of a ChestTerminal.
+     */
+    private static final class TerminalView {
+
+        private final BlockMenu menu;
+        private final ItemFingerprint[] items = new ItemFingerprint[TERMINAL_SLOTS.length];
+        private final int[] amounts = new int[TERMINAL_SLOTS.length];
+        private final boolean[] drawn = new boolean[TERMINAL_SLOTS.length];
+
+        private int page = -1;
+        private int version = -1;
+
+        private TerminalView(BlockMenu menu) {
+            this.menu = menu;
+        }
 
-            if (add) {
-                items.add(new ItemStackAndInteger(stack, stack.getAmount()));
+        private boolean update(int index, IndexedItem item) {
+            ItemFingerprint fingerprint = item == null ? null : item.getFingerprint();
+            int amount = item == null ? 0 : item.getAmount();
+
+            if (drawn[index] && Objects.equals(items[index], fingerprint) && amounts[index] == amount) {
+                return false;
             }
+
+            drawn[index] = true;
+            items[index] = fingerprint;
+            amounts[index] = amount;
+            return true;
         }
+
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An {@link ItemFingerprint} reduces an {@link ItemStack} to its {@link Material}, display name
+ * and (optionally) lore, the same properties {@link SlimefunUtils#isItemSimilar(ItemStack, ItemStack, boolean, boolean)}
+ * looks at. The lore is kept as a {@link List} of its compared lines, so two lores can never collide.
+ * Two plain {@link ItemStack ItemStacks} are similar (ignoring their amount) if and only if their fingerprints
+ * are equal, so they can be used as keys of a hash-based collection.
+ *
+ * @see CargoFilter
+ * @see ChestTerminalIndex
+ */
+final class ItemFingerprint {
+
+    private final Material type;
+    private final boolean hasItemMeta;
+    private final String displayName;
+    private final List<String> lore;
+    private final int hashCode;
+
+    ItemFingerprint(ItemStack item, boolean checkLore) {
+        this.type = item.getType();
+        this.hasItemMeta = item.hasItemMeta();
+
+        if (hasItemMeta) {
+            ItemMeta meta = item.getItemMeta();
+            this.displayName = meta.hasDisplayName() ? meta.getDisplayName() : null;
+            this.lore = checkLore && meta.hasLore() ? SlimefunUtils.getComparableLore(meta.getLore()) : null;
+        } else {
+            this.displayName = null;
+            this.lore = null;
+        }
+
+        this.hashCode = Objects.hash(type, hasItemMeta, displayName, lore);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ItemFingerprint)) {
+            return false;
+        }
+
+        ItemFingerprint other = (ItemFingerprint) obj;
+        return type == other.type && hasItemMeta == other.hasItemMeta && Objects.equals(displayName, other.displayName) && Objects.equals(lore, other.lore);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+}
@@ -7,14 +7,12 @@ import io.github.thebusybiscuit.slimefun4.api.network.NetworkComponent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.EnergyNetComponent;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
-import io.github.thebusybiscuit.slimefun4.implementation.items.electric.reactors.Reactor;
 import io.github.thebusybiscuit.slimefun4.utils.holograms.SimpleHologram;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
 import me.mrCookieSlime.Slimefun.Objects.handlers.GeneratorTicker;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.Slimefun;
-import me.mrCookieSlime.Slimefun.api.energy.ChargableBlock;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -78,6 +76,7 @@ public class EnergyNet extends Network {
     private final Set<Location> generators = new HashSet<>();
     private final Set<Location> storage = new HashSet<>();
     private final Set<Location> consumers = new HashSet<>();
+    private final EnergyNetSolver solver = new EnergyNetSolver();
 
     protected EnergyNet(Location l) {
         super(SlimefunPlugin.getNetworkManager(), l);
@@ -125,6 +124,8 @@ public class EnergyNet extends Network {
             default:
                 break;
         }
+
+        solver.markDirty();
     }
 
     public void tick(Block b) {
@@ -140,75 +141,22 @@ public class EnergyNet extends Network {
         if (connectorNodes.isEmpty() && terminusNodes.isEmpty()) {
             SimpleHologram.update(b, "&4附近没有能源网络");
         } else {
-            double supply = DoubleHandler.fixDouble(tickAllGenerators(timestamp::getAndAdd) + tickAllCapacitors());
-            double demand = 0;
-
-            int availableEnergy = (int) supply;
+            double generatorSupply = tickAllGenerators(timestamp::getAndAdd);
 
-            for (Location machine : consumers) {
-                int capacity = ChargableBlock.getMaxCharge(machine);
-                int charge = ChargableBlock.getCharge(machine);
+            // Exploded generators have been removed by now, so this needs to happen afterwards
+            solver.update(generators, storage, consumers);
 
-                if (charge < capacity) {
-                    int availableSpace = capacity - charge;
-                    demand += availableSpace;
-
-                    if (availableEnergy > 0) {
-                        if (availableEnergy > availableSpace) {
-                            ChargableBlock.setUnsafeCharge(machine, capacity, false);
-                            availableEnergy -= availableSpace;
-                        } else {
-                            ChargableBlock.setUnsafeCharge(machine, charge + availableEnergy, false);
-                            availableEnergy = 0;
-                        }
-                    }
-                }
-            }
+            double supply = DoubleHandler.fixDouble(generatorSupply + solver.getStoredEnergy());
+            int availableEnergy = solver.chargeConsumers((int) supply);
 
-            storeExcessEnergy(availableEnergy);
-            updateHologram(b, supply, demand);
+            solver.storeExcessEnergy(availableEnergy);
+            updateHologram(b, supply, solver.getDemand());
         }
 
         // We have subtracted the timings from Generators, so they do not show up twice.
         SlimefunPlugin.getProfiler().closeEntry(b.getLocation(), SlimefunItems.ENERGY_REGULATOR.getItem(), timestamp.get());
     }
 
-    private void storeExcessEnergy(int available) {
-        for (Location capacitor : storage) {
-            if (available > 0) {
-                int capacity = ChargableBlock.getMaxCharge(capacitor);
-
-                if (available > capacity) {
-                    ChargableBlock.setUnsafeCharge(capacitor, capacity, true);
-                    available -= capacity;
-                } else {
-                    ChargableBlock.setUnsafeCharge(capacitor, available, true);
-                    available = 0;
-                }
-            } else {
-                ChargableBlock.setUnsafeCharge(capacitor, 0, true);
-            }
-        }
-
-        for (Location generator : generators) {
-            int capacity = ChargableBlock.getMaxCharge(generator);
-
-            if (capacity > 0) {
-                if (available > 0) {
-                    if (available > capacity) {
-                        ChargableBlock.setUnsafeCharge(generator, capacity, false);
-                        available = available - capacity;
-                    } else {
-                        ChargableBlock.setUnsafeCharge(generator, available, false);
-                        available = 0;
-                    }
-                } else {
-                    ChargableBlock.setUnsafeCharge(generator, 0, false);
-                }
-            }
-        }
-    }
-
     private double tickAllGenerators(LongConsumer timeCallback) {
         double supply = 0;
         Set<Location> exploded = new HashSet<>();
@@ -228,8 +176,6 @@ public class EnergyNet extends Network {
                         if (generator.explode(source)) {
                             exploded.add(source);
                             BlockStorage.clearBlockInfo(source);
-                            Reactor.processing.remove(source);
-                            Reactor.progress.remove(source);
 
                             Slimefun.runSync(() -> {
                                 source.getBlock().setType(Material.LAVA);
@@ -254,16 +200,9 @@ public class EnergyNet extends Network {
             }
         }
 
-        generators.removeAll(exploded);
-
-        return supply;
-    }
-
-    private double tickAllCapacitors() {
-        double supply = 0;
-
-        for (Location capacitor : storage) {
-            supply += ChargableBlock.getCharge(capacitor);
+        if (!exploded.isEmpty()) {
+            generators.removeAll(exploded);
+            solver.markDirty();
         }
 
         return supply;
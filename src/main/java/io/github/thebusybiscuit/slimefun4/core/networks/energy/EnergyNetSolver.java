@@ -0,0 +1,222 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.energy;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.energy.ChargableBlock;
+import org.bukkit.Location;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link EnergyNetSolver} distributes the energy of an {@link EnergyNet}.
+ * <p>
+ * It keeps the {@link Location} and capacity of every node in plain arrays, which are only
+ * rebuilt after the {@link EnergyNet} reported a change in its classification.
+ * Charges are read once per tick and only written back to the {@link BlockStorage}
+ * if they have actually changed.
+ *
+ * @see EnergyNet
+ */
+final class EnergyNetSolver {
+
+    private static final Location[] NO_LOCATIONS = new Location[0];
+    private static final int[] NO_VALUES = new int[0];
+
+    private Location[] consumers = NO_LOCATIONS;
+    private int[] consumerCapacities = NO_VALUES;
+
+    private Location[] capacitors = NO_LOCATIONS;
+    private int[] capacitorCapacities = NO_VALUES;
+    private int[] capacitorCharges = NO_VALUES;
+
+    private Location[] generators = NO_LOCATIONS;
+    private int[] generatorCapacities = NO_VALUES;
+
+    // Network discovery may mark us as dirty from another Thread while we are rebuilding
+    private volatile boolean dirty = true;
+    private int demand;
+
+    /**
+     * This marks this solver as outdated, the arrays will be rebuilt before the next tick.
+     */
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * This rebuilds our arrays if they are outdated.
+     *
+     * @param generatorNodes
+     *            The generators of our {@link EnergyNet}
+     * @param capacitorNodes
+     *            The capacitors of our {@link EnergyNet}
+     * @param consumerNodes
+     *            The consumers of our {@link EnergyNet}
+     */
+    void update(Set<Location> generatorNodes, Set<Location> capacitorNodes, Set<Location> consumerNodes) {
+        if (!dirty) {
+            return;
+        }
+
+        // Cleared before rebuilding, so a change reported in the meantime causes another rebuild
+        dirty = false;
+        Map<String, Integer> capacities = SlimefunPlugin.getRegistry().getEnergyCapacities();
+
+        generators = generatorNodes.toArray(NO_LOCATIONS);
+        generatorCapacities = getCapacities(capacities, generators);
+
+        capacitors = capacitorNodes.toArray(NO_LOCATIONS);
+        capacitorCapacities = getCapacities(capacities, capacitors);
+        capacitorCharges = new int[capacitors.length];
+
+        consumers = consumerNodes.toArray(NO_LOCATIONS);
+        consumerCapacities = getCapacities(capacities, consumers);
+    }
+
+    private static int[] getCapacities(Map<String, Integer> capacities, Location[] locations) {
+        int[] array = new int[locations.length];
+
+        for (int i = 0; i < locations.length; i++) {
+            String id = BlockStorage.checkID(locations[i]);
+            array[i] = id == null ? 0 : capacities.getOrDefault(id, 0);
+        }
+
+        return array;
+    }
+
+    // If a node has disappeared since our last rebuild, we return -1 and schedule a rebuild
+    private int getCharge(Location l) {
+        int charge = BlockStorage.getInt(l, ChargableBlock.CHARGE, -1);
+
+        if (charge < 0) {
+            if (!BlockStorage.hasBlockInfo(l)) {
+                dirty = true;
+                return -1;
+            }
+
+            return 0;
+        }
+
+        return charge;
+    }
+
+    private static void setCharge(Location l, int previous, int charge, int capacity, boolean updateTexture) {
+        if (previous != charge) {
+            ChargableBlock.setUnsafeCharge(l, charge, capacity, updateTexture);
+        }
+    }
+
+    /**
+     * This returns the energy that is currently stored in all capacitors.
+     *
+     * @return The stored energy
+     */
+    int getStoredEnergy() {
+        int supply = 0;
+
+        for (int i = 0; i < capacitors.length; i++) {
+            int charge = getCharge(capacitors[i]);
+            capacitorCharges[i] = charge;
+
+            if (charge > 0) {
+                supply += charge;
+            }
+        }
+
+        return supply;
+    }
+
+    /**
+     * This charges all consumers with the given amount of energy.
+     * The total demand can be retrieved via {@link #getDemand()} afterwards.
+     *
+     * @param available
+     *            The energy we have at our disposal
+     * @return The energy that is left over
+     */
+    int chargeConsumers(int available) {
+        demand = 0;
+
+        for (int i = 0; i < consumers.length; i++) {
+            int capacity = consumerCapacities[i];
+            int charge = getCharge(consumers[i]);
+
+            if (charge >= 0 && charge < capacity) {
+                int availableSpace = capacity - charge;
+                demand += availableSpace;
+
+                if (available > 0) {
+                    if (available > availableSpace) {
+                        setCharge(consumers[i], charge, capacity, capacity, false);
+                        available -= availableSpace;
+                    } else {
+                        setCharge(consumers[i], charge, charge + available, capacity, false);
+                        available = 0;
+                    }
+                }
+            }
+        }
+
+        return available;
+    }
+
+    int getDemand() {
+        return demand;
+    }
+
+    /**
+     * This stores any excess energy in our capacitors and generators.
+     *
+     * @param available
+     *            The energy that is left over
+     */
+    void storeExcessEnergy(int available) {
+        for (int i = 0; i < capacitors.length; i++) {
+            int charge = capacitorCharges[i];
+
+            if (charge < 0) {
+                continue;
+            }
+
+            int capacity = capacitorCapacities[i];
+
+            if (available > 0) {
+                if (available > capacity) {
+                    setCharge(capacitors[i], charge, capacity, capacity, true);
+                    available -= capacity;
+                } else {
+                    setCharge(capacitors[i], charge, available, capacity, true);
+                    available = 0;
+                }
+            } else {
+                setCharge(capacitors[i], charge, 0, capacity, true);
+            }
+        }
+
+        for (int i = 0; i < generators.length; i++) {
+            int capacity = generatorCapacities[i];
+
+            if (capacity > 0) {
+                int charge = getCharge(generators[i]);
+
+                if (charge < 0) {
+                    continue;
+                }
+
+                if (available > 0) {
+                    if (available > capacity) {
+                        setCharge(generators[i], charge, capacity, capacity, false);
+                        available -= capacity;
+                    } else {
+                        setCharge(generators[i], charge, available, capacity, false);
+                        available = 0;
+                    }
+                } else {
+                    setCharge(generators[i], charge, 0, capacity, false);
+                }
+            }
+        }
+    }
+
+}
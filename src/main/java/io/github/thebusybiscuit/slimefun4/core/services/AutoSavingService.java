@@ -54,6 +54,7 @@ public class AutoSavingService {
 
     private void saveAllBlocks() {
         Set<BlockStorage> worlds = new HashSet<>();
+        SlimefunPlugin.getMachineStateService().saveAll();
 
         for (World world : Bukkit.getWorlds()) {
             if (BlockStorage.isWorldRegistered(world.getName())) {
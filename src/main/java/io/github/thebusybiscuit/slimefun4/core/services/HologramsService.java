@@ -0,0 +1,233 @@
+package io.github.thebusybiscuit.slimefun4.core.services;
+
+import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
+import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
+import io.github.thebusybiscuit.slimefun4.utils.holograms.SimpleHologram;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@link HologramsService} keeps track of the {@link ArmorStand} holograms above Slimefun blocks.
+ * <p>
+ * The {@link UUID} of every hologram is remembered per block and also stored in the block data,
+ * so a hologram can be found again via {@link Bukkit#getEntity(UUID)} instead of scanning
+ * every {@link Entity} in its chunk. Only holograms from before this service existed,
+ * or holograms that have been removed by someone else, still need a single chunk scan.
+ * <p>
+ * Updates can be requested from any {@link Thread}. They are collected and applied in one batch
+ * on the main thread, only the latest text of every hologram is applied and unchanged texts are skipped.
+ *
+ * @see SimpleHologram
+ */
+public class HologramsService {
+
+    private static final String HOLOGRAM_KEY = "hologram";
+
+    // Holograms of unknown origin have to be found by scanning their chunk
+    private static final UUID UNKNOWN = new UUID(0, 0);
+
+    private final Map<BlockPosition, UUID> holograms = new ConcurrentHashMap<>();
+    private final Map<BlockPosition, String> updates = new ConcurrentHashMap<>();
+    private final Map<BlockPosition, UUID> removals = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    /**
+     * This sets the text of the hologram above the given block, it will be created if necessary.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param text
+     *            The new text, color codes will be translated
+     */
+    public void update(Location l, String text) {
+        BlockPosition position = new BlockPosition(l);
+        removals.remove(position);
+        updates.put(position, text);
+        schedule();
+    }
+
+    /**
+     * This removes the hologram above the given block.
+     * This may be called right before the block data is cleared.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     */
+    public void remove(Location l) {
+        BlockPosition position = new BlockPosition(l);
+        updates.remove(position);
+
+        // The block data may be gone by the time we actually remove the hologram
+        UUID uuid = holograms.remove(position);
+
+        if (uuid == null) {
+            uuid = getStoredId(l);
+        }
+
+        removals.put(position, uuid == null ? UNKNOWN : uuid);
+        schedule();
+    }
+
+    /**
+     * This returns the hologram above the given block without creating it.
+     * This has to be called on the main thread.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @return The hologram {@link ArmorStand} or null if there is none
+     */
+    public ArmorStand getHologram(Location l) {
+        return isLoaded(l) ? getArmorStand(new BlockPosition(l), l, false) : null;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            Slimefun.runSync(this::flush);
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+
+        Iterator<Map.Entry<BlockPosition, UUID>> removed = removals.entrySet().iterator();
+
+        while (removed.hasNext()) {
+            Map.Entry<BlockPosition, UUID> entry = removed.next();
+            removed.remove();
+
+            Location l = toLocation(entry.getKey());
+
+            if (isLoaded(l)) {
+                ArmorStand hologram = entry.getValue() == UNKNOWN ? findArmorStand(l) : getArmorStand(entry.getValue());
+
+                if (hologram != null) {
+                    hologram.remove();
+                }
+            }
+        }
+
+        Iterator<Map.Entry<BlockPosition, String>> updated = updates.entrySet().iterator();
+
+        while (updated.hasNext()) {
+            Map.Entry<BlockPosition, String> entry = updated.next();
+
+            // Only remove it if the text has not been changed again in the meantime
+            updates.remove(entry.getKey(), entry.getValue());
+
+            Location l = toLocation(entry.getKey());
+
+            // Blocks in unloaded chunks are not ticked, we do not want to load them either
+            if (isLoaded(l)) {
+                ArmorStand hologram = getArmorStand(entry.getKey(), l, true);
+                String text = ChatColors.color(entry.getValue());
+
+                if (!text.equals(hologram.getCustomName())) {
+                    hologram.setCustomName(text);
+                }
+
+                if (!hologram.isCustomNameVisible()) {
+                    hologram.setCustomNameVisible(true);
+                }
+            }
+        }
+    }
+
+    private ArmorStand getArmorStand(BlockPosition position, Location l, boolean createIfNoneExists) {
+        UUID uuid = holograms.get(position);
+
+        if (uuid == null) {
+            uuid = getStoredId(l);
+        }
+
+        ArmorStand hologram = uuid == null ? null : getArmorStand(uuid);
+
+        if (hologram == null) {
+            hologram = findArmorStand(l);
+
+            if (hologram == null) {
+                if (!createIfNoneExists) {
+                    return null;
+                }
+
+                hologram = SimpleHologram.create(getHologramLocation(l));
+            }
+        }
+
+        if (!hologram.getUniqueId().equals(uuid)) {
+            holograms.put(position, hologram.getUniqueId());
+
+            if (BlockStorage.hasBlockInfo(l)) {
+                BlockStorage.addBlockInfo(l, HOLOGRAM_KEY, hologram.getUniqueId().toString());
+            }
+        }
+
+        return hologram;
+    }
+
+    private static UUID getStoredId(Location l) {
+        String uuid = BlockStorage.getLocationInfo(l, HOLOGRAM_KEY);
+
+        if (uuid != null) {
+            try {
+                return UUID.fromString(uuid);
+            } catch (IllegalArgumentException x) {
+                // The stored id is broken, we will simply look for the hologram again
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private static ArmorStand getArmorStand(UUID uuid) {
+        Entity entity = Bukkit.getEntity(uuid);
+
+        if (entity instanceof ArmorStand && entity.isValid()) {
+            return (ArmorStand) entity;
+        }
+
+        return null;
+    }
+
+    private static ArmorStand findArmorStand(Location l) {
+        Location hologramLocation = getHologramLocation(l);
+
+        for (Entity n : hologramLocation.getChunk().getEntities()) {
+            if (n instanceof ArmorStand && isHologram((ArmorStand) n) && hologramLocation.distanceSquared(n.getLocation()) < 0.4D) {
+                return (ArmorStand) n;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isHologram(ArmorStand armorStand) {
+        // These properties are set by SimpleHologram#create(Location), holograms always carry a name
+        return armorStand.isMarker() && !armorStand.isVisible() && armorStand.getCustomName() != null;
+    }
+
+    private static boolean isLoaded(Location l) {
+        World world = l.getWorld();
+        return world != null && world.isChunkLoaded(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+    }
+
+    private static Location toLocation(BlockPosition position) {
+        return new Location(position.getWorld(), position.getX(), position.getY(), position.getZ());
+    }
+
+    private static Location getHologramLocation(Location l) {
+        return new Location(l.getWorld(), l.getBlockX() + 0.5, l.getBlockY() + 0.7F, l.getBlockZ() + 0.5);
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.github.thebusybiscuit.slimefun4.core.services;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This Service resolves {@link ItemStack ItemStacks} without a Slimefun item id to their {@link SlimefunItem}.
+ * <p>
+ * Such items can only be resolved by comparing them to every registered {@link SlimefunItem},
+ * which is what backwards-compatible mode has to do for legacy items and for every plain vanilla item.
+ * The outcome of this comparison, including the fact that nothing matched, is cached by the
+ * {@link Material}, amount and {@link ItemMeta} of the item.
+ * <p>
+ * The cache is bounded and has to be cleared whenever items are registered or settings are reloaded.
+ *
+ * @see SlimefunItem#getByItem(ItemStack)
+ */
+public class ItemResolutionService {
+
+    private static final int MAX_SIZE = 4096;
+
+    private final Map<ItemKey, Optional<SlimefunItem>> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * This returns the {@link SlimefunItem} the given {@link ItemStack} represents by comparing it to
+     * every registered {@link SlimefunItem}. If a match is found, its id is written to the {@link ItemStack},
+     * so it can be looked up directly from now on.
+     *
+     * @param item
+     *            The {@link ItemStack} to resolve
+     * @param meta
+     *            The {@link ItemMeta} of that {@link ItemStack} or null if it has none
+     * @return The matching {@link SlimefunItem} or null if there is none
+     */
+    public SlimefunItem resolveLegacyItem(ItemStack item, ItemMeta meta) {
+        ItemKey key = new ItemKey(item, meta);
+        Optional<SlimefunItem> result = cache.get(key);
+
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            result = Optional.ofNullable(findItem(item));
+
+            if (cache.size() >= MAX_SIZE) {
+                cache.clear();
+            }
+
+            cache.put(key, result);
+        }
+
+        if (result.isPresent()) {
+            SlimefunPlugin.getItemDataService().setItemData(item, result.get().getID());
+            return result.get();
+        }
+
+        return null;
+    }
+
+    private SlimefunItem findItem(ItemStack item) {
+        // This wrapper improves the heavy ItemStack#getItemMeta() call by caching it.
+        ItemStackWrapper wrapper = new ItemStackWrapper(item);
+
+        // Quite expensive performance-wise
+        // But necessary for supporting legacy items
+        for (SlimefunItem sfi : SlimefunPlugin.getRegistry().getAllSlimefunItems()) {
+            if (sfi.isItem(wrapper)) {
+                return sfi;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This clears the cache.
+     * It needs to be called whenever a {@link SlimefunItem} is registered or the item settings are reloaded.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    private static final class ItemKey {
+
+        private final Material type;
+        private final int amount;
+        private final ItemMeta meta;
+        private final int hashCode;
+
+        private ItemKey(ItemStack item, ItemMeta meta) {
+            this.type = item.getType();
+            this.amount = item.getAmount();
+            this.meta = meta;
+            this.hashCode = Objects.hash(type, amount, meta);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ItemKey)) {
+                return false;
+            }
+
+            ItemKey other = (ItemKey) obj;
+            return type == other.type && amount == other.amount && Objects.equals(meta, other.meta);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
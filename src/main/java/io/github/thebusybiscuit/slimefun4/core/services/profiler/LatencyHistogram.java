@@ -0,0 +1,161 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link LatencyHistogram} records timings into a fixed set of logarithmic buckets.
+ * <p>
+ * Every power of two is split into 8 linear sub-buckets, so any recorded value is
+ * off by at most 12.5% while the whole range from 1ns up to roughly 18 minutes only needs 304 buckets.
+ * Recording a value never allocates anything and never blocks, the buckets can optionally be
+ * striped across multiple {@link Thread Threads} to reduce contention.
+ *
+ * @see SlimefunProfiler
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Anything above 2^40ns (about 18 minutes) ends up in the last bucket
+    private static final int MAX_BITS = 40;
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final int stripeMask;
+    private final AtomicLongArray counts;
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * This creates a new {@link LatencyHistogram}.
+     *
+     * @param stripes
+     *            The amount of stripes, must be a power of two
+     */
+    LatencyHistogram(int stripes) {
+        this.stripeMask = stripes - 1;
+        this.counts = new AtomicLongArray(stripes * BUCKETS);
+    }
+
+    /**
+     * This records the given timing.
+     *
+     * @param nanos
+     *            The timing in nanoseconds
+     */
+    void record(long nanos) {
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        counts.incrementAndGet(stripe * BUCKETS + getBucket(nanos));
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * This takes a {@link Snapshot} of everything that was recorded since the last snapshot.
+     * Values that are recorded while the snapshot is taken are carried over to the next one.
+     *
+     * @return A {@link Snapshot} of this {@link LatencyHistogram}
+     */
+    Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            long value = counts.get(i);
+
+            if (value != 0) {
+                counts.addAndGet(i, -value);
+                buckets[i % BUCKETS] += value;
+                count += value;
+            }
+        }
+
+        return new Snapshot(buckets, count, total.sumThenReset(), max.getThenReset());
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+
+        if (highestBit >= MAX_BITS) {
+            return BUCKETS - 1;
+        }
+
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * An immutable copy of the buckets of a {@link LatencyHistogram}.
+     */
+    static final class Snapshot {
+
+        private final long[] buckets;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        private Snapshot(long[] buckets, long count, long total, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        /**
+         * This returns the given percentile of all recorded values.
+         * The result is the upper bound of the bucket in which that percentile falls.
+         *
+         * @param percentile
+         *            The percentile, between 0 and 1
+         * @return The value at this percentile in nanoseconds
+         */
+        long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+
+                if (seen >= target) {
+                    return Math.min(getUpperBound(i), max);
+                }
+            }
+
+            return max;
+        }
+
+    }
+
+}
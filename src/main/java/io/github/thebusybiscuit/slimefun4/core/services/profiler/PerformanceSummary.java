@@ -1,6 +1,7 @@
 package io.github.thebusybiscuit.slimefun4.core.services.profiler;
 
 import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChatUtils;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import net.md_5.bungee.api.ChatColor;
@@ -33,21 +34,29 @@ class PerformanceSummary {
     private final long totalElapsedTime;
     private final int totalTickedBlocks;
     private final float percentage;
+    private final int backlog;
 
     private final Map<String, Long> chunks;
     private final Map<String, Long> plugins;
     private final Map<String, Long> items;
 
+    private final Map<String, LatencyHistogram.Snapshot> itemLatencies;
+    private final Map<String, LatencyHistogram.Snapshot> chunkLatencies;
+
     PerformanceSummary(SlimefunProfiler profiler, long totalElapsedTime, int totalTickedBlocks) {
         this.profiler = profiler;
         this.rating = profiler.getPerformance();
         this.percentage = profiler.getPercentageOfTick();
         this.totalElapsedTime = totalElapsedTime;
         this.totalTickedBlocks = totalTickedBlocks;
+        this.backlog = SlimefunPlugin.getTickerTask().getBacklog();
 
         chunks = profiler.getByChunk();
         plugins = profiler.getByPlugin();
         items = profiler.getByItem();
+
+        itemLatencies = profiler.getLatenciesByItem();
+        chunkLatencies = profiler.getLatenciesByChunk();
     }
 
     public void send(CommandSender sender) {
@@ -55,6 +64,11 @@ class PerformanceSummary {
         sender.sendMessage(ChatColor.GREEN + "===== Slimefun Lag Profiler =====");
         sender.sendMessage(ChatColor.GOLD + "Total: " + ChatColor.YELLOW + NumberUtils.getAsMillis(totalElapsedTime));
         sender.sendMessage(ChatColor.GOLD + "Performance: " + getPerformanceRating());
+
+        if (backlog >= 0) {
+            sender.sendMessage(ChatColor.GOLD + "Backlog: " + ChatColor.YELLOW + backlog + " block" + (backlog != 1 ? "s" : "") + " not yet ticked this cycle");
+        }
+
         sender.sendMessage("");
 
         summarizeTimings(totalTickedBlocks, "block", sender, items, entry -> {
@@ -64,9 +78,9 @@ class PerformanceSummary {
             if (count > 1) {
                 String average = NumberUtils.getAsMillis(entry.getValue() / count);
 
-                return entry.getKey() + " - " + count + "x (" + time + " | avg: " + average + ')';
+                return entry.getKey() + " - " + count + "x (" + time + " | avg: " + average + getLatencies(itemLatencies.get(entry.getKey())) + ')';
             } else {
-                return entry.getKey() + " - " + count + "x (" + time + ')';
+                return entry.getKey() + " - " + count + "x (" + time + getLatencies(itemLatencies.get(entry.getKey())) + ')';
             }
         });
 
@@ -74,7 +88,7 @@ class PerformanceSummary {
             int count = profiler.getBlocksInChunk(entry.getKey());
             String time = NumberUtils.getAsMillis(entry.getValue());
 
-            return entry.getKey() + " - " + count + " block" + (count != 1 ? 's' : "") + " (" + time + ")";
+            return entry.getKey() + " - " + count + " block" + (count != 1 ? 's' : "") + " (" + time + getLatencies(chunkLatencies.get(entry.getKey())) + ")";
         });
 
         summarizeTimings(plugins.size(), "plugin", sender, plugins, entry -> {
@@ -85,6 +99,15 @@ class PerformanceSummary {
         });
     }
 
+    private String getLatencies(LatencyHistogram.Snapshot snapshot) {
+        if (snapshot == null) {
+            return "";
+        }
+
+        // These cover every measurement since the last summary, not just the latest tick
+        return " | p50: " + NumberUtils.getAsMillis(snapshot.getPercentile(0.5)) + " | p99: " + NumberUtils.getAsMillis(snapshot.getPercentile(0.99)) + " | max: " + NumberUtils.getAsMillis(snapshot.getMax());
+    }
+
     private void summarizeTimings(int count, String name, CommandSender sender, Map<String, Long> map, Function<Map.Entry<String, Long>, String> formatter) {
         Stream<Map.Entry<String, Long>> stream = map.entrySet().stream();
         List<Entry<String, Long>> results = stream.sorted(Map.Entry.comparingByValue(Comparator.reverseOrder())).collect(Collectors.toList());
@@ -1,26 +1,59 @@
 package io.github.thebusybiscuit.slimefun4.core.services.profiler;
 
-import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.SlimefunAddon;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
-import org.bukkit.block.Block;
+import org.bukkit.Location;
 
+/**
+ * A {@link ProfiledBlock} holds the timings of a single ticked block.
+ * It is created once per {@link Location} and then reused for every measurement at that {@link Location},
+ * it also keeps a reference to the {@link LatencyHistogram LatencyHistograms} of its item and chunk,
+ * so recording a measurement does not need any further lookups.
+ */
 class ProfiledBlock {
 
-    private final BlockPosition position;
     private final SlimefunItem item;
+    private final String chunk;
+    private final LatencyHistogram itemHistogram;
+    private final LatencyHistogram chunkHistogram;
 
-    ProfiledBlock(BlockPosition position, SlimefunItem item) {
-        this.position = position;
+    // Blocks are only ever ticked by one Thread at a time, so there is no need for atomic updates here
+    private volatile int tick;
+    private volatile long elapsed;
+
+    ProfiledBlock(SlimefunItem item, String chunk, LatencyHistogram itemHistogram, LatencyHistogram chunkHistogram) {
         this.item = item;
+        this.chunk = chunk;
+        this.itemHistogram = itemHistogram;
+        this.chunkHistogram = chunkHistogram;
+        this.tick = -1;
     }
 
-    ProfiledBlock(Block b) {
-        this(new BlockPosition(b), null);
+    /**
+     * This records a new measurement.
+     *
+     * @param currentTick
+     *            The current tick of the {@link SlimefunProfiler}
+     * @param nanos
+     *            The measured time in nanoseconds
+     * @return Whether this is the first measurement of this block during the current tick
+     */
+    boolean record(int currentTick, long nanos) {
+        itemHistogram.record(nanos);
+        chunkHistogram.record(nanos);
+
+        if (tick != currentTick) {
+            tick = currentTick;
+            elapsed = nanos;
+            return true;
+        } else {
+            elapsed += nanos;
+            return false;
+        }
     }
 
-    public BlockPosition getPosition() {
-        return position;
+    SlimefunItem getItem() {
+        return item;
     }
 
     public String getId() {
@@ -31,18 +64,16 @@ class ProfiledBlock {
         return item.getAddon();
     }
 
-    @Override
-    public boolean equals(Object obj) {
-        if (obj instanceof ProfiledBlock) {
-            return position.equals(((ProfiledBlock) obj).position);
-        }
+    public String getChunk() {
+        return chunk;
+    }
 
-        return false;
+    int getTick() {
+        return tick;
     }
 
-    @Override
-    public int hashCode() {
-        return position.hashCode();
+    long getElapsedTime() {
+        return elapsed;
     }
 
-}
\ No newline at end of file
+}
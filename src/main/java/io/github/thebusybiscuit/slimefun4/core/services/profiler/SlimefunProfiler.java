@@ -1,12 +1,10 @@
 package io.github.thebusybiscuit.slimefun4.core.services.profiler;
 
-import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.SlimefunAddon;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.implementation.tasks.TickerTask;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
-import me.mrCookieSlime.Slimefun.api.Slimefun;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -15,16 +13,14 @@ import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The {@link SlimefunProfiler} works closely to the {@link TickerTask} and is
@@ -32,6 +28,10 @@ import java.util.logging.Level;
  * It collects timings data for any ticked {@link Block} and the corresponding {@link SlimefunItem}.
  * This allows developers to identify laggy {@link SlimefunItem SlimefunItems} or {@link SlimefunAddon SlimefunAddons}.
  * But it also enables Server Admins to locate lag-inducing areas on the {@link Server}.
+ * <p>
+ * The profiler is always running. Measurements are recorded right away into {@link LongAdder LongAdders}
+ * and {@link LatencyHistogram LatencyHistograms} per item and per chunk, so the overhead of a single
+ * measurement stays in the range of a few nanoseconds.
  *
  * @author TheBusyBiscuit
  *
@@ -40,22 +40,37 @@ import java.util.logging.Level;
  */
 public class SlimefunProfiler {
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(3);
-    private final AtomicBoolean running = new AtomicBoolean(false);
-    private final AtomicInteger queued = new AtomicInteger(0);
+    // Blocks and chunks that have not been ticked for this many cycles are dropped
+    private static final int PURGE_INTERVAL = 1200;
+    private static final int ITEM_STRIPES = getItemStripes();
 
-    private long totalElapsedTime;
+    private final Map<Location, ProfiledBlock> blocks = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> items = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> chunks = new ConcurrentHashMap<>();
+
+    private final LongAdder tickTime = new LongAdder();
+    private final LongAdder tickedBlocks = new LongAdder();
+
+    private volatile int tick = 0;
+    private volatile int completedTick = -1;
+    private volatile long totalElapsedTime;
+    private volatile int totalTickedBlocks;
 
-    private final Map<ProfiledBlock, Long> timings = new ConcurrentHashMap<>();
     private final Queue<CommandSender> requests = new ConcurrentLinkedQueue<>();
 
+    private static int getItemStripes() {
+        // One stripe per core, but at most 4 to keep the memory footprint per item low
+        int cores = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        return Integer.highestOneBit(cores) == cores ? cores : Integer.highestOneBit(cores) << 1;
+    }
+
     /**
-     * This method starts the profiling, data from previous runs will be cleared.
+     * This method starts a new profiling cycle.
+     * The profiler is always running, the timings of a block only ever cover its latest cycle
+     * while the {@link LatencyHistogram LatencyHistograms} keep accumulating until the next {@link PerformanceSummary}.
      */
     public void start() {
-        running.set(true);
-        queued.set(0);
-        timings.clear();
+        tick++;
     }
 
     /**
@@ -64,30 +79,27 @@ public class SlimefunProfiler {
      * @return A timestamp, best fed back into {@link #closeEntry(Location, SlimefunItem, long)}
      */
     public long newEntry() {
-        if (!running.get()) {
-            return 0;
-        }
-
-        queued.incrementAndGet();
         return System.nanoTime();
     }
 
     /**
-     * This method schedules a given amount of entries for the future.
-     * Be careful to {@link #closeEntry(Location, SlimefunItem, long)} all of them again!
-     * No {@link PerformanceSummary} will be sent until all entires were closed.
+     * Entries no longer need to be scheduled in advance, every entry is recorded
+     * as soon as it is closed.
      *
      * @param amount The amount of entries that should be scheduled.
+     *
+     * @deprecated This method does nothing anymore
      */
+    @Deprecated
     public void scheduleEntries(int amount) {
-        if (running.get()) {
-            queued.getAndAdd(amount);
-        }
+        // Entries are recorded right away, there is nothing to wait for
     }
 
     /**
      * This method closes a previously started entry.
      * Make sure to call {@link #newEntry()} to get the timestamp in advance.
+     * <p>
+     * Apart from the first measurement at a {@link Location}, this does not allocate anything.
      *
      * @param l         The {@link Location} of our {@link Block}
      * @param item      The {@link SlimefunItem} at this {@link Location}
@@ -103,58 +115,73 @@ public class SlimefunProfiler {
         }
 
         long elapsedTime = System.nanoTime() - timestamp;
+        ProfiledBlock block = blocks.get(l);
+
+        if (block == null || block.getItem() != item) {
+            block = createBlock(l, item);
+        }
 
-        executor.execute(() -> {
-            ProfiledBlock block = new ProfiledBlock(new BlockPosition(l), item);
-            timings.put(block, elapsedTime);
-            queued.decrementAndGet();
-        });
+        if (block.record(tick, elapsedTime)) {
+            tickedBlocks.increment();
+        }
 
+        tickTime.add(elapsedTime);
         return elapsedTime;
     }
 
+    private ProfiledBlock createBlock(Location l, SlimefunItem item) {
+        String chunk = getChunkName(l.getWorld().getName(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
+        LatencyHistogram itemHistogram = items.computeIfAbsent(item.getID(), id -> new LatencyHistogram(ITEM_STRIPES));
+        LatencyHistogram chunkHistogram = chunks.computeIfAbsent(chunk, key -> new LatencyHistogram(1));
+
+        ProfiledBlock block = new ProfiledBlock(item, chunk, itemHistogram, chunkHistogram);
+        blocks.put(l.clone(), block);
+        return block;
+    }
+
+    private static String getChunkName(String world, int x, int z) {
+        return world + " (" + x + ',' + z + ')';
+    }
+
     /**
-     * This stops the profiling.
+     * This completes the current profiling cycle and sends a {@link PerformanceSummary}
+     * to everyone who requested one.
      */
     public void stop() {
-        running.set(false);
+        completedTick = tick;
+        totalElapsedTime = tickTime.sumThenReset();
+        totalTickedBlocks = (int) tickedBlocks.sumThenReset();
+
+        if (completedTick % PURGE_INTERVAL == 0) {
+            purge();
+        }
 
         if (SlimefunPlugin.instance == null || !SlimefunPlugin.instance.isEnabled()) {
             // Slimefun has been disabled
             return;
         }
 
-        // Since we got more than one Thread in our pool, blocking this one is completely fine
-        executor.execute(() -> {
-
-            // Wait for all timing results to come in
-            while (queued.get() > 0 && !running.get()) {
-                try {
-                    Thread.sleep(1);
-                } catch (InterruptedException e) {
-                    Slimefun.getLogger().log(Level.SEVERE, "A waiting Thread was interrupted", e);
-                    Thread.currentThread().interrupt();
-                }
-            }
+        if (!requests.isEmpty()) {
+            PerformanceSummary summary = new PerformanceSummary(this, totalElapsedTime, totalTickedBlocks);
+            Iterator<CommandSender> iterator = requests.iterator();
 
-            if (running.get()) {
-                // Looks like the next profiling has already started, abort!
-                return;
+            while (iterator.hasNext()) {
+                summary.send(iterator.next());
+                iterator.remove();
             }
+        }
+    }
 
-            totalElapsedTime = timings.values().stream().mapToLong(Long::longValue).sum();
+    private void purge() {
+        blocks.values().removeIf(block -> completedTick - block.getTick() > PURGE_INTERVAL);
 
-            if (!requests.isEmpty()) {
-                PerformanceSummary summary = new PerformanceSummary(this, totalElapsedTime, timings.size());
-                Iterator<CommandSender> iterator = requests.iterator();
+        Set<String> activeChunks = new HashSet<>();
 
-                while (iterator.hasNext()) {
-                    summary.send(iterator.next());
-                    iterator.remove();
-                }
-            }
-        });
+        for (ProfiledBlock block : blocks.values()) {
+            activeChunks.add(block.getChunk());
+        }
 
+        chunks.keySet().retainAll(activeChunks);
     }
 
     /**
@@ -170,11 +197,18 @@ public class SlimefunProfiler {
         requests.add(sender);
     }
 
+    private boolean isRecent(ProfiledBlock block) {
+        // Synchronized blocks are only measured during the following cycle
+        return block.getTick() >= completedTick;
+    }
+
     protected Map<String, Long> getByItem() {
         Map<String, Long> map = new HashMap<>();
 
-        for (Map.Entry<ProfiledBlock, Long> entry : timings.entrySet()) {
-            map.merge(entry.getKey().getId(), entry.getValue(), Long::sum);
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block)) {
+                map.merge(block.getId(), block.getElapsedTime(), Long::sum);
+            }
         }
 
         return map;
@@ -183,8 +217,10 @@ public class SlimefunProfiler {
     protected Map<String, Long> getByPlugin() {
         Map<String, Long> map = new HashMap<>();
 
-        for (Map.Entry<ProfiledBlock, Long> entry : timings.entrySet()) {
-            map.merge(entry.getKey().getAddon().getName(), entry.getValue(), Long::sum);
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block)) {
+                map.merge(block.getAddon().getName(), block.getElapsedTime(), Long::sum);
+            }
         }
 
         return map;
@@ -193,55 +229,87 @@ public class SlimefunProfiler {
     protected Map<String, Long> getByChunk() {
         Map<String, Long> map = new HashMap<>();
 
-        for (Map.Entry<ProfiledBlock, Long> entry : timings.entrySet()) {
-            String world = entry.getKey().getPosition().getWorld().getName();
-            int x = entry.getKey().getPosition().getChunkX();
-            int z = entry.getKey().getPosition().getChunkZ();
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block)) {
+                map.merge(block.getChunk(), block.getElapsedTime(), Long::sum);
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * This takes a {@link LatencyHistogram.Snapshot} of every item that was measured since the last call.
+     *
+     * @return The latency distribution of every item id
+     */
+    protected Map<String, LatencyHistogram.Snapshot> getLatenciesByItem() {
+        Map<String, LatencyHistogram.Snapshot> map = new HashMap<>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : items.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+
+            if (snapshot.getCount() > 0) {
+                map.put(entry.getKey(), snapshot);
+            }
+        }
 
-            map.merge(world + " (" + x + ',' + z + ')', entry.getValue(), Long::sum);
+        return map;
+    }
+
+    /**
+     * This takes a {@link LatencyHistogram.Snapshot} of every chunk that was measured since the last call.
+     *
+     * @return The latency distribution of every chunk
+     */
+    protected Map<String, LatencyHistogram.Snapshot> getLatenciesByChunk() {
+        Map<String, LatencyHistogram.Snapshot> map = new HashMap<>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : chunks.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+
+            if (snapshot.getCount() > 0) {
+                map.put(entry.getKey(), snapshot);
+            }
         }
 
         return map;
     }
 
     protected int getBlocksInChunk(String chunk) {
-        int blocks = 0;
-
-        for (ProfiledBlock block : timings.keySet()) {
-            String world = block.getPosition().getWorld().getName();
-            int x = block.getPosition().getChunkX();
-            int z = block.getPosition().getChunkZ();
+        int amount = 0;
 
-            if (chunk.equals(world + " (" + x + ',' + z + ')')) {
-                blocks++;
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block) && block.getChunk().equals(chunk)) {
+                amount++;
             }
         }
 
-        return blocks;
+        return amount;
     }
 
     protected int getBlocksOfId(String id) {
-        int blocks = 0;
+        int amount = 0;
 
-        for (ProfiledBlock block : timings.keySet()) {
-            if (block.getId().equals(id)) {
-                blocks++;
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block) && block.getId().equals(id)) {
+                amount++;
             }
         }
 
-        return blocks;
+        return amount;
     }
 
     protected int getBlocksFromPlugin(String id) {
-        int blocks = 0;
+        int amount = 0;
 
-        for (ProfiledBlock block : timings.keySet()) {
-            if (block.getAddon().getName().equals(id)) {
-                blocks++;
+        for (ProfiledBlock block : blocks.values()) {
+            if (isRecent(block) && block.getAddon().getName().equals(id)) {
+                amount++;
             }
         }
 
-        return blocks;
+        return amount;
     }
 
     protected float getPercentageOfTick() {
@@ -280,20 +348,20 @@ public class SlimefunProfiler {
      */
     public boolean hasTimings(Block b) {
         Validate.notNull("Cannot get timings for a null Block");
-        return timings.containsKey(new ProfiledBlock(b));
+        return blocks.containsKey(b.getLocation());
     }
 
     public String getTime(Block b) {
         Validate.notNull("Cannot get timings for a null Block");
 
-        long time = timings.getOrDefault(new ProfiledBlock(b), 0L);
-        return NumberUtils.getAsMillis(time);
+        ProfiledBlock block = blocks.get(b.getLocation());
+        return NumberUtils.getAsMillis(block == null ? 0 : block.getElapsedTime());
     }
 
     public String getTime(Chunk chunk) {
         Validate.notNull("Cannot get timings for a null Chunk");
 
-        long time = getByChunk().getOrDefault(chunk.getWorld().getName() + " (" + chunk.getX() + ',' + chunk.getZ() + ')', 0L);
+        long time = getByChunk().getOrDefault(getChunkName(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()), 0L);
         return NumberUtils.getAsMillis(time);
     }
 
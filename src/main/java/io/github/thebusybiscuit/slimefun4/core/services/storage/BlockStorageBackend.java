@@ -0,0 +1,56 @@
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
+
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link BlockStorageBackend} is responsible for persisting the block data of exactly
+ * one {@link World}. The in-memory representation is still owned by {@link BlockStorage},
+ * the backend only has to load that data once and write back any changes it was told about.
+ *
+ * @see LegacyBlockStorageBackend
+ * @see RegionBlockStorageBackend
+ */
+public interface BlockStorageBackend {
+
+    /**
+     * This method loads every block that was stored for this {@link World} and hands
+     * it over to the given consumer.
+     *
+     * @param consumer
+     *            The callback that receives every {@link Location} and its data
+     */
+    void load(BiConsumer<Location, BlockInfoConfig> consumer);
+
+    /**
+     * This method is called whenever the data of a block has changed.
+     * It may be called very often, even from the async ticker thread, so implementations
+     * should only mark the block as dirty and defer any serialization until {@link #save()}.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param id
+     *            The id of the Slimefun item at this {@link Location}
+     * @param data
+     *            The current data of this block, or null if it was removed
+     */
+    void update(Location l, String id, Config data);
+
+    /**
+     * This returns the amount of pending changes which have not been saved yet.
+     *
+     * @return The amount of unsaved changes
+     */
+    int getChanges();
+
+    /**
+     * This writes all pending changes to the disk.
+     */
+    void save();
+
+}
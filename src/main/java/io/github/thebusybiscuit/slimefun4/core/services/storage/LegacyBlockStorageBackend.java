@@ -0,0 +1,196 @@
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import io.github.thebusybiscuit.slimefun4.utils.PatternUtils;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
+import me.mrCookieSlime.Slimefun.api.BlockStorage;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * This is the original storage format of Slimefun.
+ * Every Slimefun item id gets its own YAML file (.sfb) in which every block is stored
+ * as a JSON {@link String}, keyed by its serialized {@link Location}.
+ * <p>
+ * Changes are not serialized right away, we only remember which {@link Location Locations}
+ * are dirty. Upon saving, every dirty block is serialized once and only the files of the
+ * affected ids are rewritten. Only the files that changed during the last save are kept in memory,
+ * as those are likely to change again, every other file is read again when it is needed.
+ *
+ * @see RegionBlockStorageBackend
+ */
+public class LegacyBlockStorageBackend implements BlockStorageBackend {
+
+    // A marker for blocks that were removed, a ConcurrentHashMap does not allow null values
+    private static final Config REMOVED = new BlockInfoConfig(Collections.emptyMap());
+
+    private final World world;
+    private final File directory;
+    private final Map<String, Map<Location, Config>> dirtyBlocks = new ConcurrentHashMap<>();
+    private final Map<String, Config> recentFiles = new ConcurrentHashMap<>();
+
+    public LegacyBlockStorageBackend(World world, File directory) {
+        this.world = world;
+        this.directory = directory;
+    }
+
+    /**
+     * This returns the directory in which the .sfb files of this {@link World} are stored.
+     *
+     * @return The directory of this backend
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void load(BiConsumer<Location, BlockInfoConfig> consumer) {
+        if (!directory.exists()) {
+            directory.mkdirs();
+            return;
+        }
+
+        List<File> files = new ArrayList<>();
+
+        for (File file : directory.listFiles()) {
+            if (file.getName().equals("null.sfb")) {
+                Slimefun.getLogger().log(Level.WARNING, "File with corrupted blocks detected!");
+                Slimefun.getLogger().log(Level.WARNING, "Slimefun will simply skip this File, you should look inside though!");
+                Slimefun.getLogger().log(Level.WARNING, file.getPath());
+            } else if (file.getName().endsWith(".sfb")) {
+                files.add(file);
+            }
+        }
+
+        // The files are parsed in parallel, the blocks are still handed over on this Thread
+        ParallelFileLoader.load("Blocks for World \"" + world.getName() + '"', files, this::readFile, (file, blocks) -> blocks.forEach(consumer));
+    }
+
+    private Map<Location, BlockInfoConfig> readFile(File file) {
+        FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+        Map<Location, BlockInfoConfig> blocks = new LinkedHashMap<>();
+
+        for (String key : cfg.getKeys(false)) {
+            try {
+                Location l = deserializeLocation(key);
+                BlockInfoConfig blockInfo = BlockStorage.parseBlockInfo(l, cfg.getString(key));
+
+                if (blockInfo != null && blockInfo.contains("id")) {
+                    blocks.put(l, blockInfo);
+                }
+            } catch (Exception x) {
+                Slimefun.getLogger().log(Level.WARNING, x, () -> "Failed to load " + file.getName() + '(' + key + ") for Slimefun " + SlimefunPlugin.getVersion());
+            }
+        }
+
+        return blocks;
+    }
+
+    @Override
+    public void update(Location l, String id, Config data) {
+        dirtyBlocks.computeIfAbsent(id, key -> new ConcurrentHashMap<>()).put(l, data == null ? REMOVED : data);
+    }
+
+    @Override
+    public int getChanges() {
+        int changes = 0;
+
+        for (Map<Location, Config> blocks : dirtyBlocks.values()) {
+            changes += blocks.size();
+        }
+
+        return changes;
+    }
+
+    @Override
+    public void save() {
+        Set<String> changed = new HashSet<>();
+
+        for (Map.Entry<String, Map<Location, Config>> entry : dirtyBlocks.entrySet()) {
+            Map<Location, Config> blocks = entry.getValue();
+
+            if (blocks.isEmpty()) {
+                continue;
+            }
+
+            Config cfg = recentFiles.computeIfAbsent(entry.getKey(), id -> new Config(new File(directory, id + ".sfb")));
+
+            for (Map.Entry<Location, Config> block : new HashMap<>(blocks).entrySet()) {
+                // Only remove it if it has not been changed again in the meantime
+                blocks.remove(block.getKey(), block.getValue());
+
+                Config data = block.getValue();
+                cfg.setValue(serializeLocation(block.getKey()), data == REMOVED ? null : BlockStorage.serializeBlockInfo(data));
+            }
+
+            if (saveFile(cfg)) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        // Only the files of ids that changed just now are kept, the others can be read again
+        recentFiles.keySet().retainAll(changed);
+    }
+
+    private boolean saveFile(Config cfg) {
+        if (cfg.getKeys().isEmpty()) {
+            File file = cfg.getFile();
+
+            if (file.exists()) {
+                try {
+                    Files.delete(file.toPath());
+                } catch (IOException e) {
+                    Slimefun.getLogger().log(Level.WARNING, e, () -> "Could not delete file \"" + file.getName() + '"');
+                }
+            }
+
+            return false;
+        } else {
+            File tmpFile = new File(cfg.getFile().getParentFile(), cfg.getFile().getName() + ".tmp");
+            cfg.save(tmpFile);
+
+            try {
+                Files.move(tmpFile.toPath(), cfg.getFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException x) {
+                Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while copying a temporary File for Slimefun " + SlimefunPlugin.getVersion());
+            }
+
+            return true;
+        }
+    }
+
+    private String serializeLocation(Location l) {
+        return world.getName() + ';' + l.getBlockX() + ';' + l.getBlockY() + ';' + l.getBlockZ();
+    }
+
+    private Location deserializeLocation(String key) {
+        String[] components = PatternUtils.SEMICOLON.split(key);
+
+        if (components.length != 4) {
+            throw new IllegalArgumentException("Malformed Location: " + key);
+        }
+
+        return new Location(world, Integer.parseInt(components[1]), Integer.parseInt(components[2]), Integer.parseInt(components[3]));
+    }
+
+}
@@ -0,0 +1,83 @@
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
+
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * This class migrates the block data of a {@link World} from the old .sfb files of the
+ * {@link LegacyBlockStorageBackend} into a {@link RegionBlockStorageBackend}.
+ * <p>
+ * The migration only runs once, the old directory is renamed afterwards and kept as a backup.
+ * Chunk data (.sfc) and block inventories (.sfi) are not affected by the backend and keep
+ * their current files.
+ */
+public class LegacyStorageMigrator {
+
+    private final World world;
+    private final LegacyBlockStorageBackend source;
+    private final RegionBlockStorageBackend target;
+
+    public LegacyStorageMigrator(World world, LegacyBlockStorageBackend source, RegionBlockStorageBackend target) {
+        this.world = world;
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * This checks whether there is any legacy data left which needs to be migrated.
+     *
+     * @return Whether a migration is required
+     */
+    public boolean isMigrationRequired() {
+        File[] files = source.getDirectory().listFiles((dir, name) -> name.endsWith(".sfb"));
+        return files != null && files.length > 0;
+    }
+
+    /**
+     * This migrates all legacy block data into the region files.
+     *
+     * @return Whether the migration was successful
+     */
+    public boolean migrate() {
+        if (!isMigrationRequired()) {
+            return false;
+        }
+
+        if (target.hasStoredRegions()) {
+            Slimefun.getLogger().log(Level.WARNING, "World \"{0}\" has both .sfb files and region files, skipping the migration!", world.getName());
+            return false;
+        }
+
+        Slimefun.getLogger().log(Level.INFO, "Migrating Blocks of World \"{0}\" to the region storage format...", world.getName());
+        long timestamp = System.currentTimeMillis();
+        AtomicInteger blocks = new AtomicInteger();
+
+        source.load((l, data) -> {
+            target.update(l, data.getString("id"), data);
+            blocks.incrementAndGet();
+        });
+
+        target.save();
+
+        File directory = source.getDirectory();
+        File backup = new File(directory.getParentFile(), directory.getName() + "-legacy-" + System.currentTimeMillis());
+
+        try {
+            Files.move(directory.toPath(), backup.toPath());
+        } catch (IOException x) {
+            Slimefun.getLogger().log(Level.SEVERE, x, () -> "Could not move the old Block data of World \"" + world.getName() + "\" out of the way, please remove it manually: " + directory.getPath());
+            return false;
+        }
+
+        long time = System.currentTimeMillis() - timestamp;
+        Slimefun.getLogger().log(Level.INFO, "Migrated {0} Blocks of World \"{1}\" in {2}ms, the old files were moved to \"{3}\"", new Object[]{blocks.get(), world.getName(), time, backup.getPath()});
+        return true;
+    }
+
+}
@@ -0,0 +1,123 @@
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * The {@link ParallelFileLoader} reads a batch of data files on a bounded pool of worker threads.
+ * <p>
+ * Only the parsing happens on these workers, every result is handed over to the consumer on the
+ * calling {@link Thread} and in the same order as the given {@link File Files}.
+ * This way the storage maps are still only populated by a single {@link Thread}.
+ * <p>
+ * The amount of workers can be configured via {@code storage.loader-threads},
+ * a value of 0 uses one thread less than there are available processors.
+ *
+ * @see LegacyBlockStorageBackend
+ * @see RegionBlockStorageBackend
+ */
+public final class ParallelFileLoader {
+
+    private ParallelFileLoader() {}
+
+    /**
+     * This parses all given {@link File Files} and passes every result to the consumer.
+     * A parser may return null if a {@link File} did not yield anything, such a {@link File} is skipped.
+     *
+     * @param name
+     *            The name of what is being loaded, used for the progress messages
+     * @param files
+     *            The {@link File Files} to load
+     * @param parser
+     *            The parser, it will be called from multiple threads at once
+     * @param consumer
+     *            The callback that receives every parsed {@link File}
+     * @param <T>
+     *            The type of the parsed result
+     */
+    public static <T> void load(String name, List<File> files, Function<File, T> parser, BiConsumer<File, T> consumer) {
+        int threads = Math.min(getThreads(), files.size());
+        int delay = SlimefunPlugin.getCfg().getInt("URID.info-delay");
+        long timestamp = System.currentTimeMillis();
+
+        if (threads <= 1) {
+            for (int i = 0; i < files.size(); i++) {
+                if (timestamp + delay < System.currentTimeMillis()) {
+                    logProgress(name, i, files.size());
+                    timestamp = System.currentTimeMillis();
+                }
+
+                File file = files.get(i);
+                T result = parser.apply(file);
+
+                if (result != null) {
+                    consumer.accept(file, result);
+                }
+            }
+
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Slimefun Storage Loader #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<T>> futures = new ArrayList<>(files.size());
+
+            for (File file : files) {
+                futures.add(executor.submit(() -> parser.apply(file)));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                if (timestamp + delay < System.currentTimeMillis()) {
+                    logProgress(name, i, files.size());
+                    timestamp = System.currentTimeMillis();
+                }
+
+                File file = files.get(i);
+
+                try {
+                    T result = futures.get(i).get();
+
+                    if (result != null) {
+                        consumer.accept(file, result);
+                    }
+                } catch (ExecutionException x) {
+                    Slimefun.getLogger().log(Level.SEVERE, x.getCause(), () -> "An Error occurred while loading " + file.getName() + " for Slimefun " + SlimefunPlugin.getVersion());
+                }
+            }
+        } catch (InterruptedException x) {
+            Slimefun.getLogger().log(Level.SEVERE, "Slimefun was interrupted while loading {0}", name);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int getThreads() {
+        int threads = SlimefunPlugin.getCfg().getInt("storage.loader-threads");
+        return threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    private static void logProgress(String name, int done, int total) {
+        int progress = Math.round((((done * 100.0F) / total) * 100.0F) / 100.0F);
+        Slimefun.getLogger().log(Level.INFO, "Loading {0}... {1}% done", new Object[]{name, progress});
+    }
+
+}
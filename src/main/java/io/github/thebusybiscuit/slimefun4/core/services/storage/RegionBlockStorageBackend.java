@@ -0,0 +1,370 @@
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import me.mrCookieSlime.Slimefun.api.BlockInfoConfig;
+import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * This {@link BlockStorageBackend} stores blocks in a compact binary format.
+ * The {@link World} is split into regions of 32x32 chunks and every region gets its own
+ * file (r.x.z.sfr), so saving only needs to rewrite the regions that actually changed.
+ * <p>
+ * A region file starts with a palette of every key and item id used inside it,
+ * followed by the blocks. Each block references its id and keys by their palette index.
+ *
+ * @see LegacyBlockStorageBackend
+ * @see LegacyStorageMigrator
+ */
+public class RegionBlockStorageBackend implements BlockStorageBackend {
+
+    private static final int MAGIC = 0x53465242;
+    private static final byte VERSION = 1;
+
+    // A region covers 32x32 chunks which is 512x512 blocks
+    private static final int REGION_SHIFT = 9;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private static final String FILE_EXTENSION = ".sfr";
+
+    private final World world;
+    private final File directory;
+
+    private final Map<Long, Map<Location, Config>> regions = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyRegions = ConcurrentHashMap.newKeySet();
+
+    // Regions whose file has been read or written, any other region file holds blocks we do not know about
+    private final Set<Long> loadedRegions = ConcurrentHashMap.newKeySet();
+
+    public RegionBlockStorageBackend(World world, File directory) {
+        this.world = world;
+        this.directory = directory;
+    }
+
+    // A region covers 32x32 chunks
+    private static final int CHUNK_SHIFT = 5;
+
+    private static long getRegionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * This returns the key of the region which contains the given chunk.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @return The key of the region this chunk belongs to
+     */
+    public static long getRegionKeyOfChunk(int chunkX, int chunkZ) {
+        return getRegionKey(chunkX >> CHUNK_SHIFT, chunkZ >> CHUNK_SHIFT);
+    }
+
+    private static long getRegionKey(Location l) {
+        return getRegionKey(l.getBlockX() >> REGION_SHIFT, l.getBlockZ() >> REGION_SHIFT);
+    }
+
+    /**
+     * This checks whether this backend has any region files stored on the disk yet.
+     *
+     * @return Whether any region files exist
+     */
+    public boolean hasStoredRegions() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        return files != null && files.length > 0;
+    }
+
+    /**
+     * This returns the key of every region that has a region file on the disk.
+     * None of these files will be read by this method.
+     *
+     * @return The keys of all stored regions
+     */
+    public Set<Long> getStoredRegions() {
+        Set<Long> keys = new HashSet<>();
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("r.") && name.endsWith(FILE_EXTENSION));
+
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    String[] components = file.getName().split("\\.");
+                    keys.add(getRegionKey(Integer.parseInt(components[1]), Integer.parseInt(components[2])));
+                } catch (RuntimeException x) {
+                    Slimefun.getLogger().log(Level.WARNING, "Ignoring invalid Region File {0} in World \"{1}\"", new Object[]{file.getName(), world.getName()});
+                }
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * This loads a single region and hands every block inside it over to the given consumer.
+     * The region must not have been loaded before.
+     * <p>
+     * Until a stored region has been loaded, no changes may be reported for it via
+     * {@link #update(Location, String, Config)}, since saving it would drop every block that was not loaded.
+     * Should that happen anyway, the region is not saved until it has been loaded.
+     *
+     * @param key
+     *            The key of the region, see {@link #getRegionKeyOfChunk(int, int)}
+     * @param consumer
+     *            The callback that receives every {@link Location} and its data
+     */
+    public void loadRegion(long key, BiConsumer<Location, BlockInfoConfig> consumer) {
+        File file = new File(directory, "r." + (int) (key >> 32) + '.' + (int) key + FILE_EXTENSION);
+
+        if (file.exists()) {
+            try {
+                readRegion(file, consumer);
+            } catch (IOException | RuntimeException x) {
+                Slimefun.getLogger().log(Level.SEVERE, x, () -> "Failed to load Region File " + file.getName() + " in World " + world.getName() + " for Slimefun " + SlimefunPlugin.getVersion());
+            }
+        }
+    }
+
+    @Override
+    public void load(BiConsumer<Location, BlockInfoConfig> consumer) {
+        if (!directory.exists()) {
+            directory.mkdirs();
+            return;
+        }
+
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("r.") && name.endsWith(FILE_EXTENSION));
+
+        // The regions are read in parallel, the blocks are still handed over on this Thread
+        ParallelFileLoader.load("Blocks for World \"" + world.getName() + '"', Arrays.asList(files), file -> {
+            Map<Location, BlockInfoConfig> blocks = new LinkedHashMap<>();
+
+            try {
+                readRegion(file, blocks::put);
+            } catch (IOException | RuntimeException x) {
+                Slimefun.getLogger().log(Level.SEVERE, x, () -> "Failed to load Region File " + file.getName() + " in World " + world.getName() + " for Slimefun " + SlimefunPlugin.getVersion());
+            }
+
+            // Any blocks read before an error are kept, just like the region itself keeps them
+            return blocks;
+        }, (file, blocks) -> blocks.forEach(consumer));
+    }
+
+    private void readRegion(File file, BiConsumer<Location, BlockInfoConfig> consumer) throws IOException {
+        String[] components = file.getName().split("\\.");
+        int regionX = Integer.parseInt(components[1]);
+        int regionZ = Integer.parseInt(components[2]);
+        long regionKey = getRegionKey(regionX, regionZ);
+        Map<Location, Config> region = regions.computeIfAbsent(regionKey, key -> new ConcurrentHashMap<>());
+        loadedRegions.add(regionKey);
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a Slimefun region file: " + file.getName());
+            }
+
+            byte version = input.readByte();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported region file version: " + version);
+            }
+
+            String[] palette = new String[input.readInt()];
+
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = readString(input);
+            }
+
+            int blocks = input.readInt();
+
+            for (int i = 0; i < blocks; i++) {
+                int x = (regionX << REGION_SHIFT) + input.readShort();
+                int z = (regionZ << REGION_SHIFT) + input.readShort();
+                int y = input.readInt();
+
+                String id = palette[input.readInt()];
+                int entries = input.readInt();
+                Map<String, String> data = new HashMap<>(entries + 2);
+                data.put("id", id);
+
+                for (int j = 0; j < entries; j++) {
+                    data.put(palette[input.readInt()], readString(input));
+                }
+
+                Location l = new Location(world, x, y, z);
+                BlockInfoConfig blockInfo = new BlockInfoConfig(data);
+                region.put(l, blockInfo);
+                consumer.accept(l, blockInfo);
+            }
+        }
+    }
+
+    @Override
+    public void update(Location l, String id, Config data) {
+        long key = getRegionKey(l);
+        Map<Location, Config> region = regions.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+
+        if (data == null) {
+            region.remove(l);
+        } else {
+            region.put(l, data);
+        }
+
+        dirtyRegions.add(key);
+    }
+
+    @Override
+    public int getChanges() {
+        return dirtyRegions.size();
+    }
+
+    @Override
+    public void save() {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        List<Long> changedRegions = new ArrayList<>(dirtyRegions);
+        dirtyRegions.removeAll(changedRegions);
+
+        for (long key : changedRegions) {
+            int regionX = (int) (key >> 32);
+            int regionZ = (int) key;
+            File file = new File(directory, "r." + regionX + '.' + regionZ + FILE_EXTENSION);
+            Map<Location, Config> region = regions.get(key);
+
+            if (!loadedRegions.contains(key) && file.exists()) {
+                // Saving a region that has not been loaded yet would drop every block stored in its file
+                dirtyRegions.add(key);
+                continue;
+            }
+
+            try {
+                if (region == null || region.isEmpty()) {
+                    regions.remove(key);
+                    Files.deleteIfExists(file.toPath());
+                } else {
+                    File tmpFile = new File(directory, file.getName() + ".tmp");
+                    writeRegion(tmpFile, new HashMap<>(region));
+                    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    loadedRegions.add(key);
+                }
+            } catch (IOException x) {
+                // Try again during the next save
+                dirtyRegions.add(key);
+                Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while saving Region File " + file.getName() + " for Slimefun " + SlimefunPlugin.getVersion());
+            }
+        }
+    }
+
+    private void writeRegion(File file, Map<Location, Config> blocks) throws IOException {
+        // We take a snapshot of every block first, the data may still be modified while we save
+        Map<Location, Map<String, String>> snapshots = new HashMap<>(blocks.size());
+        Map<String, Integer> palette = new HashMap<>();
+        List<String> paletteEntries = new ArrayList<>();
+
+        for (Map.Entry<Location, Config> entry : blocks.entrySet()) {
+            Config data = entry.getValue();
+            Map<String, String> values;
+
+            if (data instanceof BlockInfoConfig) {
+                values = ((BlockInfoConfig) data).snapshot();
+            } else {
+                values = new HashMap<>();
+
+                for (String key : data.getKeys()) {
+                    String value = data.getString(key);
+
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                }
+            }
+
+            String id = values.get("id");
+
+            if (id != null) {
+                snapshots.put(entry.getKey(), values);
+
+                for (String key : values.keySet()) {
+                    addToPalette(palette, paletteEntries, key);
+                }
+
+                addToPalette(palette, paletteEntries, id);
+            }
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(paletteEntries.size());
+
+            for (String entry : paletteEntries) {
+                writeString(output, entry);
+            }
+
+            output.writeInt(snapshots.size());
+
+            for (Map.Entry<Location, Map<String, String>> entry : snapshots.entrySet()) {
+                Location l = entry.getKey();
+                Map<String, String> values = entry.getValue();
+
+                output.writeShort(l.getBlockX() & REGION_MASK);
+                output.writeShort(l.getBlockZ() & REGION_MASK);
+                output.writeInt(l.getBlockY());
+                output.writeInt(palette.get(values.get("id")));
+                output.writeInt(values.size() - 1);
+
+                for (Map.Entry<String, String> value : values.entrySet()) {
+                    if (!value.getKey().equals("id")) {
+                        output.writeInt(palette.get(value.getKey()));
+                        writeString(output, value.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addToPalette(Map<String, Integer> palette, List<String> entries, String value) {
+        if (!palette.containsKey(value)) {
+            palette.put(value, entries.size());
+            entries.add(value);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the different storage backends that {@link me.mrCookieSlime.Slimefun.api.BlockStorage}
+ * can use to persist the data of Slimefun blocks.
+ */
+package io.github.thebusybiscuit.slimefun4.core.services.storage;
\ No newline at end of file
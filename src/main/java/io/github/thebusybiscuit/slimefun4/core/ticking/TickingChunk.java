@@ -0,0 +1,116 @@
+package io.github.thebusybiscuit.slimefun4.core.ticking;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A {@link TickingChunk} represents a {@link Chunk} that contains at least one ticking Slimefun block.
+ * The {@link Location Locations} of these blocks are stored in a copy-on-write array, so they
+ * can be iterated from the ticker thread without copying them every time.
+ *
+ * @see TickingChunkRegistry
+ */
+public final class TickingChunk {
+
+    private static final Location[] EMPTY = new Location[0];
+
+    private final UUID worldId;
+    private final int x;
+    private final int z;
+
+    private volatile Location[] locations = EMPTY;
+    private volatile boolean loaded;
+
+    TickingChunk(UUID worldId, int x, int z, boolean loaded) {
+        this.worldId = worldId;
+        this.x = x;
+        this.z = z;
+        this.loaded = loaded;
+    }
+
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * This returns whether this {@link Chunk} is currently loaded.
+     * Only loaded {@link Chunk Chunks} are visited by the ticker.
+     *
+     * @return Whether this {@link Chunk} is loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    /**
+     * This returns the {@link Location Locations} of every ticking block inside this {@link Chunk}.
+     * The returned {@link List} is a snapshot and will not reflect any later changes.
+     *
+     * @return A snapshot of all ticking {@link Location Locations}
+     */
+    public List<Location> getLocations() {
+        return Collections.unmodifiableList(Arrays.asList(locations));
+    }
+
+    public int size() {
+        return locations.length;
+    }
+
+    public boolean isEmpty() {
+        return locations.length == 0;
+    }
+
+    synchronized boolean add(Location l) {
+        Location[] array = locations;
+
+        for (Location location : array) {
+            if (location.equals(l)) {
+                return false;
+            }
+        }
+
+        Location[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = l;
+        locations = copy;
+        return true;
+    }
+
+    synchronized boolean remove(Location l) {
+        Location[] array = locations;
+
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].equals(l)) {
+                Location[] copy = new Location[array.length - 1];
+                System.arraycopy(array, 0, copy, 0, i);
+                System.arraycopy(array, i + 1, copy, i, array.length - i - 1);
+                locations = copy;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "TickingChunk {world=" + worldId + ", x=" + x + ", z=" + z + ", blocks=" + locations.length + ", loaded=" + loaded + '}';
+    }
+
+}
@@ -0,0 +1,185 @@
+package io.github.thebusybiscuit.slimefun4.core.ticking;
+
+import io.github.thebusybiscuit.slimefun4.utils.collections.LongHashMap;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link TickingChunkRegistry} keeps track of every {@link Chunk} that contains ticking Slimefun blocks.
+ * Chunks are grouped by the {@link UUID} of their {@link World} and addressed by their coordinates packed into a long.
+ * <p>
+ * The loaded state of every {@link TickingChunk} is kept up to date via {@link ChunkLoadEvent} and {@link ChunkUnloadEvent},
+ * so the ticker only ever sees the {@link Chunk Chunks} that are actually loaded.
+ *
+ * @see TickingChunk
+ */
+public class TickingChunkRegistry {
+
+    private static final TickingChunk[] EMPTY = new TickingChunk[0];
+
+    private final Map<UUID, LongHashMap<TickingChunk>> worlds = new ConcurrentHashMap<>();
+
+    // This snapshot is rebuilt lazily whenever a chunk was added, removed, loaded or unloaded
+    private volatile TickingChunk[] loadedChunks = EMPTY;
+    private volatile boolean dirty = false;
+
+    public static long getChunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * This registers a ticking block at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the ticking block
+     */
+    public synchronized void add(Location l) {
+        World world = l.getWorld();
+        int x = l.getBlockX() >> 4;
+        int z = l.getBlockZ() >> 4;
+
+        LongHashMap<TickingChunk> chunks = worlds.computeIfAbsent(world.getUID(), id -> new LongHashMap<>());
+        TickingChunk chunk = chunks.get(getChunkKey(x, z));
+
+        if (chunk == null) {
+            chunk = new TickingChunk(world.getUID(), x, z, world.isChunkLoaded(x, z));
+            chunks.put(getChunkKey(x, z), chunk);
+            dirty = true;
+        }
+
+        chunk.add(l);
+    }
+
+    /**
+     * This unregisters the ticking block at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     */
+    public synchronized void remove(Location l) {
+        LongHashMap<TickingChunk> chunks = worlds.get(l.getWorld().getUID());
+
+        if (chunks != null) {
+            long key = getChunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+            TickingChunk chunk = chunks.get(key);
+
+            if (chunk != null && chunk.remove(l) && chunk.isEmpty()) {
+                chunks.remove(key);
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * This returns the {@link TickingChunk} for the given {@link Chunk} coordinates.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The x coordinate of the {@link Chunk}
+     * @param z
+     *            The z coordinate of the {@link Chunk}
+     * @return The {@link TickingChunk} or null if there are no ticking blocks in this {@link Chunk}
+     */
+    public TickingChunk getChunk(World world, int x, int z) {
+        LongHashMap<TickingChunk> chunks = worlds.get(world.getUID());
+        return chunks == null ? null : chunks.get(getChunkKey(x, z));
+    }
+
+    /**
+     * This updates the loaded state of a {@link Chunk}.
+     * It is called by our listener for {@link ChunkLoadEvent} and {@link ChunkUnloadEvent}.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The x coordinate of the {@link Chunk}
+     * @param z
+     *            The z coordinate of the {@link Chunk}
+     * @param loaded
+     *            Whether the {@link Chunk} is now loaded
+     */
+    public synchronized void setLoaded(World world, int x, int z, boolean loaded) {
+        TickingChunk chunk = getChunk(world, x, z);
+
+        if (chunk != null && chunk.isLoaded() != loaded) {
+            chunk.setLoaded(loaded);
+            dirty = true;
+        }
+    }
+
+    /**
+     * This marks every {@link Chunk} of the given {@link World} as unloaded.
+     *
+     * @param world
+     *            The {@link World} that was unloaded
+     */
+    public synchronized void unloadWorld(World world) {
+        LongHashMap<TickingChunk> chunks = worlds.get(world.getUID());
+
+        if (chunks != null) {
+            chunks.forEach((key, chunk) -> chunk.setLoaded(false));
+            dirty = true;
+        }
+    }
+
+    /**
+     * This returns a snapshot of every loaded {@link TickingChunk}.
+     * The snapshot is only rebuilt if something has changed since the last call.
+     *
+     * @return All loaded {@link TickingChunk TickingChunks}
+     */
+    public List<TickingChunk> getLoadedChunks() {
+        if (dirty) {
+            rebuildSnapshot();
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(loadedChunks));
+    }
+
+    private synchronized void rebuildSnapshot() {
+        if (!dirty) {
+            return;
+        }
+
+        List<TickingChunk> list = new ArrayList<>();
+
+        for (LongHashMap<TickingChunk> chunks : worlds.values()) {
+            chunks.forEach((key, chunk) -> {
+                if (chunk.isLoaded()) {
+                    list.add(chunk);
+                }
+            });
+        }
+
+        loadedChunks = list.toArray(EMPTY);
+        dirty = false;
+    }
+
+    /**
+     * This returns the amount of {@link TickingChunk TickingChunks}, loaded or not.
+     *
+     * @return The amount of {@link Chunk Chunks} with ticking blocks
+     */
+    public int size() {
+        int size = 0;
+
+        for (LongHashMap<TickingChunk> chunks : worlds.values()) {
+            size += chunks.size();
+        }
+
+        return size;
+    }
+
+}
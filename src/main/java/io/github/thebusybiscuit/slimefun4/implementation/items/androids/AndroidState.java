@@ -0,0 +1,80 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
+import org.bukkit.block.BlockFace;
+
+/**
+ * The {@link AndroidState} holds everything a {@link ProgrammableAndroid} changes while it runs:
+ * its compiled script, the index of its current {@link Instruction}, its fuel and the direction it is facing.
+ * <p>
+ * It only lives in memory and is written to the block data by its {@link MachineStateStore}
+ * when the block data is saved or the chunk unloads.
+ *
+ * @see ScriptCompiler
+ */
+final class AndroidState {
+
+    private volatile Instruction[] script;
+    private volatile int index;
+    private volatile float fuel;
+    private volatile BlockFace facing;
+
+    AndroidState(int index, float fuel, BlockFace facing) {
+        this.index = index;
+        this.fuel = fuel;
+        this.facing = facing;
+    }
+
+    /**
+     * This returns the compiled script of this android.
+     *
+     * @return The compiled script or null if it has not been compiled yet
+     */
+    Instruction[] getScript() {
+        return script;
+    }
+
+    void setScript(Instruction[] script) {
+        this.script = script;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    float getFuel() {
+        return fuel;
+    }
+
+    void setFuel(float fuel) {
+        this.fuel = fuel;
+    }
+
+    BlockFace getFacing() {
+        return facing;
+    }
+
+    void setFacing(BlockFace facing) {
+        this.facing = facing;
+    }
+
+    static String serialize(AndroidState state) {
+        return state.index + ";" + state.fuel + ';' + state.facing.name();
+    }
+
+    static AndroidState deserialize(String value) {
+        String[] segments = value.split(";", 3);
+
+        if (segments.length != 3) {
+            return null;
+        }
+
+        // The script is not part of the state, it is compiled again on the next tick
+        return new AndroidState(Integer.parseInt(segments[0]), Float.parseFloat(segments[1]), BlockFace.valueOf(segments[2]));
+    }
+
+}
@@ -8,6 +8,8 @@ import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.cscorelib2.protection.ProtectableAction;
 import io.github.thebusybiscuit.cscorelib2.skull.SkullBlock;
 import io.github.thebusybiscuit.slimefun4.core.attributes.RecipeDisplayItem;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineState;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
@@ -62,10 +64,14 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
     protected final List<MachineFuel> fuelTypes = new ArrayList<>();
     protected final String texture;
 
+    private final MachineStateStore<AndroidState> androidStates;
+
     public ProgrammableAndroid(Category category, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe) {
         super(category, item, recipeType, recipe);
 
         texture = item.getSkullTexture().orElse(null);
+        androidStates = SlimefunPlugin.getMachineStateService().createStore(this, AndroidState::serialize, AndroidState::deserialize);
+        androidStates.setLegacyKeys("index", "fuel", "rotation");
         registerDefaultFuelTypes();
 
         new BlockMenuPreset(getID(), "可编程式机器人") {
@@ -124,10 +130,8 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
             public void onPlace(Player p, Block b, SlimefunItem item) {
                 BlockStorage.addBlockInfo(b, "owner", p.getUniqueId().toString());
                 BlockStorage.addBlockInfo(b, "script", DEFAULT_SCRIPT);
-                BlockStorage.addBlockInfo(b, "index", "0");
-                BlockStorage.addBlockInfo(b, "fuel", "0");
-                BlockStorage.addBlockInfo(b, "rotation", p.getFacing().getOppositeFace().toString());
                 BlockStorage.addBlockInfo(b, "paused", "true");
+                androidStates.start(b.getLocation(), new AndroidState(0, 0, p.getFacing().getOppositeFace()), 0);
                 b.setType(Material.PLAYER_HEAD);
 
                 Rotatable blockData = (Rotatable) b.getBlockData();
@@ -538,6 +542,12 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
 
     protected void setScript(Location l, String script) {
         BlockStorage.addBlockInfo(l, "script", script);
+
+        MachineState<AndroidState> state = androidStates.get(l);
+
+        if (state != null) {
+            state.getOperation().setScript(ScriptCompiler.compile(script));
+        }
     }
 
     private void registerDefaultFuelTypes() {
@@ -625,28 +635,31 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
 
         if ("false".equals(data.getString("paused"))) {
             BlockMenu menu = BlockStorage.getInventory(b);
-            String fuelData = data.getString("fuel");
-            float fuel = fuelData == null ? 0 : Float.parseFloat(fuelData);
+            AndroidState state = getState(b.getLocation(), data);
+            float fuel = state.getFuel();
 
             if (fuel < 0.001) {
                 consumeFuel(b, menu);
             } else {
-                String code = data.getString("script");
-                String[] script = PatternUtils.DASH.split(code == null ? DEFAULT_SCRIPT : code);
+                Instruction[] script = state.getScript();
 
-                String indexData = data.getString("index");
-                int index = (indexData == null ? 0 : Integer.parseInt(indexData)) + 1;
+                if (script == null) {
+                    String code = data.getString("script");
+                    script = ScriptCompiler.compile(code == null ? DEFAULT_SCRIPT : code);
+                    state.setScript(script);
+                }
+
+                int index = state.getIndex() + 1;
                 if (index >= script.length) {
                     index = 0;
                 }
 
                 boolean refresh = true;
-                BlockStorage.addBlockInfo(b, "fuel", String.valueOf(fuel - 1));
-                Instruction instruction = Instruction.valueOf(script[index]);
+                state.setFuel(fuel - 1);
+                Instruction instruction = script[index];
 
                 if (getAndroidType().isType(instruction.getRequiredType())) {
-                    String rotationData = data.getString("rotation");
-                    BlockFace face = rotationData == null ? BlockFace.NORTH : BlockFace.valueOf(rotationData);
+                    BlockFace face = state.getFacing();
 
                     switch (instruction) {
                         case START:
@@ -654,7 +667,7 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
                             // Just "waiting" here which means we do nothing
                             break;
                         case REPEAT:
-                            BlockStorage.addBlockInfo(b, "index", String.valueOf(0));
+                            state.setIndex(0);
                             break;
                         case CHOP_TREE:
                             refresh = chopTree(b, menu, face);
@@ -666,12 +679,33 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
                 }
 
                 if (refresh) {
-                    BlockStorage.addBlockInfo(b, "index", String.valueOf(index));
+                    state.setIndex(index);
                 }
             }
         }
     }
 
+    private AndroidState getState(Location l, Config data) {
+        MachineState<AndroidState> state = androidStates.get(l);
+
+        if (state != null) {
+            // Every caller changes this state, it has to be saved again
+            state.markChanged();
+            return state.getOperation();
+        }
+
+        // This Android has not been ticked since its state was moved out of the block data
+        String indexData = data.getString("index");
+        String fuelData = data.getString("fuel");
+        String rotationData = data.getString("rotation");
+
+        int index = indexData == null ? 0 : Integer.parseInt(indexData);
+        float fuel = fuelData == null ? 0 : Float.parseFloat(fuelData);
+        BlockFace face = rotationData == null ? BlockFace.NORTH : BlockFace.valueOf(rotationData);
+
+        return androidStates.start(l, new AndroidState(index, fuel, face), 0).getOperation();
+    }
+
     protected void rotate(Block b, BlockFace current, int mod) {
         int index = POSSIBLE_ROTATIONS.indexOf(current) + mod;
 
@@ -686,7 +720,7 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
         Rotatable rotatatable = (Rotatable) b.getBlockData();
         rotatatable.setRotation(rotation.getOppositeFace());
         b.setBlockData(rotatatable);
-        BlockStorage.addBlockInfo(b, "rotation", rotation.name());
+        getState(b.getLocation(), BlockStorage.getLocationInfo(b.getLocation())).setFacing(rotation);
     }
 
     protected void depositItems(BlockMenu menu, Block facedBlock) {
@@ -722,7 +756,7 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
                     }
 
                     int fuelLevel = (int) (fuel.getTicks() * getFuelEfficiency());
-                    BlockStorage.addBlockInfo(b, "fuel", String.valueOf(fuelLevel));
+                    getState(b.getLocation(), BlockStorage.getLocationInfo(b.getLocation())).setFuel(fuelLevel);
                     break;
                 }
             }
@@ -798,7 +832,7 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
     }
 
     protected void move(Block b, BlockFace face, Block block) {
-        Player p = Bukkit.getPlayer(ProtectionChecker.getOwnerByJson(BlockStorage.getBlockInfoAsJson(b.getLocation())));
+        Player p = ProtectionChecker.getOwner(b.getLocation());
 
         if (p != null && !ProtectionChecker.canInteract(p, block, ProtectableAction.PLACE_BLOCK)) {
             BlockStorage.addBlockInfo(b, "paused", "false");
@@ -819,10 +853,11 @@ public abstract class ProgrammableAndroid extends SlimefunItem implements Invent
 
             b.setType(Material.AIR);
             BlockStorage.moveBlockInfo(b.getLocation(), block.getLocation());
+            androidStates.move(b.getLocation(), block.getLocation());
         }
     }
 
-    protected void attack(Block b, Predicate<LivingEntity> predicate) {
+    protected void attack(Block b, BlockFace face, Predicate<LivingEntity> predicate) {
         throw new UnsupportedOperationException("Non-butcher Android tried to butcher!");
     }
 
@@ -0,0 +1,59 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import io.github.thebusybiscuit.slimefun4.utils.PatternUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link ScriptCompiler} turns the source code of a {@link Script} into an array of {@link Instruction Instructions}.
+ * <p>
+ * Compiled scripts are interned by their source code, so every {@link ProgrammableAndroid} that runs
+ * the same script shares the same array. These arrays must never be modified.
+ *
+ * @see AndroidState
+ */
+final class ScriptCompiler {
+
+    // Androids keep a reference to their script, so clearing this only affects scripts compiled afterwards
+    private static final int MAX_CACHED_SCRIPTS = 1024;
+
+    private static final Map<String, Instruction[]> scripts = new ConcurrentHashMap<>();
+
+    private ScriptCompiler() {}
+
+    /**
+     * This compiles the given source code.
+     *
+     * @param code
+     *            The source code, {@link Instruction Instructions} separated by dashes
+     * @return The compiled script
+     * @throws IllegalArgumentException
+     *             If the source code contains an unknown {@link Instruction}
+     */
+    static Instruction[] compile(String code) {
+        Instruction[] script = scripts.get(code);
+
+        if (script == null) {
+            String[] parts = PatternUtils.DASH.split(code);
+            script = new Instruction[parts.length];
+
+            for (int i = 0; i < parts.length; i++) {
+                script[i] = Instruction.valueOf(parts[i]);
+            }
+
+            if (scripts.size() >= MAX_CACHED_SCRIPTS) {
+                scripts.clear();
+            }
+
+            Instruction[] previous = scripts.putIfAbsent(code, script);
+
+            if (previous != null) {
+                script = previous;
+            }
+        }
+
+        return script;
+    }
+
+}
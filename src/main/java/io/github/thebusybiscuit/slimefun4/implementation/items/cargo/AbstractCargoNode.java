@@ -1,6 +1,7 @@
 package io.github.thebusybiscuit.slimefun4.implementation.items.cargo;
 
 import io.github.thebusybiscuit.cscorelib2.protection.ProtectableAction;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoFilter;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChatUtils;
 import me.mrCookieSlime.Slimefun.Lists.RecipeType;
@@ -30,6 +31,9 @@ abstract class AbstractCargoNode extends SlimefunItem {
 
             @Override
             public void newInstance(BlockMenu menu, Block b) {
+                // Filters are not cached while their templates can be edited
+                menu.addMenuOpeningHandler(p -> CargoFilter.onMenuOpen(b.getLocation()));
+                menu.addMenuCloseHandler(p -> CargoFilter.onMenuClose(b.getLocation()));
                 updateBlockMenu(menu, b);
             }
 
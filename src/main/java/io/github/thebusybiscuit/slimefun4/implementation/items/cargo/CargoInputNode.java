@@ -2,6 +2,7 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.cargo;
 
 import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.cscorelib2.materials.MaterialCollections;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoFilter;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
@@ -54,6 +55,8 @@ public class CargoInputNode extends AbstractCargoNode {
                         }
                     }
                 }
+
+                CargoFilter.invalidate(b.getLocation());
                 return true;
             }
         });
@@ -70,6 +73,16 @@ public class CargoInputNode extends AbstractCargoNode {
 
     @Override
     protected void updateBlockMenu(BlockMenu menu, Block b) {
+        // The filter settings may have changed
+        CargoFilter.invalidate(b.getLocation());
+
+        for (int slot : SLOTS) {
+            menu.addMenuClickHandler(slot, (p, s, item, action) -> {
+                CargoFilter.invalidate(b.getLocation());
+                return true;
+            });
+        }
+
         if (!BlockStorage.hasBlockInfo(b) || BlockStorage.getLocationInfo(b.getLocation(), "filter-type") == null || BlockStorage.getLocationInfo(b.getLocation(), "filter-type").equals("whitelist")) {
             menu.replaceExistingItem(15, new CustomItem(Material.WHITE_WOOL, "&7模式: &r白名单", "", "&e> 单击切换至黑名单模式"));
             menu.addMenuClickHandler(15, (p, slot, item, action) -> {
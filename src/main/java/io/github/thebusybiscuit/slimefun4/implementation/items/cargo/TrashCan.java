@@ -60,6 +60,12 @@ public class TrashCan extends SlimefunItem implements InventoryBlock {
             public boolean isSynchronized() {
                 return false;
             }
+
+            @Override
+            public boolean isConcurrent() {
+            // A trash can only ever clears its own inventory
+                return true;
+            }
         });
     }
 
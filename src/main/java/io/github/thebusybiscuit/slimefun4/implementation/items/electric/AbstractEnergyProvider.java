@@ -3,7 +3,9 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.electric;
 import io.github.thebusybiscuit.cscorelib2.math.DoubleHandler;
 import io.github.thebusybiscuit.slimefun4.core.attributes.EnergyNetComponent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.RecipeDisplayItem;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
 import io.github.thebusybiscuit.slimefun4.core.networks.energy.EnergyNetComponentType;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.reactors.Reactor;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import me.mrCookieSlime.Slimefun.Lists.RecipeType;
@@ -93,6 +95,30 @@ public abstract class AbstractEnergyProvider extends SlimefunItem implements Inv
         return this.fuelTypes;
     }
 
+    /**
+     * This creates a {@link MachineStateStore} which persists a {@link MachineFuel} by its input.
+     *
+     * @return A new {@link MachineStateStore} for this generator
+     */
+    protected MachineStateStore<MachineFuel> createFuelStateStore() {
+        return SlimefunPlugin.getMachineStateService().createStore(this, fuel -> MachineStateStore.serializeItems(fuel.getInput()), this::deserializeFuel);
+    }
+
+    private MachineFuel deserializeFuel(String value) {
+        ItemStack[] items = MachineStateStore.deserializeItems(value);
+
+        if (items.length == 1) {
+            for (MachineFuel fuel : fuelTypes) {
+                if (fuel.test(items[0])) {
+                    return fuel;
+                }
+            }
+        }
+
+        // This fuel type no longer exists
+        return null;
+    }
+
     @Override
     public String getLabelLocalPath() {
         return "guide.tooltips.recipes.generator";
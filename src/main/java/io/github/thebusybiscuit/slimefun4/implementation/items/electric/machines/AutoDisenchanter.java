@@ -71,25 +71,24 @@ public class AutoDisenchanter extends AContainer {
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
                 }
 
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 menu.replaceExistingItem(22, new CustomItem(Material.BLACK_STAINED_GLASS_PANE, " "));
 
-                for (ItemStack item : processing.get(b).getOutput()) {
+                for (ItemStack item : getProcessing(b).getOutput()) {
                     menu.pushItem(item, getOutputSlots());
                 }
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else {
             MachineRecipe recipe = findRecipe(menu);
@@ -103,8 +102,7 @@ public class AutoDisenchanter extends AContainer {
                     menu.consumeItem(slot);
                 }
 
-                processing.put(b, recipe);
-                progress.put(b, recipe.getTicks());
+                startProcessing(b, recipe);
             }
         }
     }
@@ -98,22 +98,21 @@ public class AutoDrier extends AContainer implements RecipeDisplayItem {
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
                 }
 
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 menu.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
-                menu.pushItem(processing.get(b).getOutput()[0], getOutputSlots());
+                menu.pushItem(getProcessing(b).getOutput()[0], getOutputSlots());
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else {
             MachineRecipe r = null;
@@ -137,8 +136,7 @@ public class AutoDrier extends AContainer implements RecipeDisplayItem {
                 if (!menu.fits(r.getOutput()[0], getOutputSlots())) return;
 
                 menu.consumeItem(inputSlot);
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
         }
     }
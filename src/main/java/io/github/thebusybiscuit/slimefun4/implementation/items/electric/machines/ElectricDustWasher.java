@@ -53,17 +53,17 @@ public abstract class ElectricDustWasher extends AContainer {
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
 
             if (timeleft > 0 && getSpeed() < 10) {
-                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
                 }
 
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
@@ -71,10 +71,9 @@ public abstract class ElectricDustWasher extends AContainer {
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
 
                 menu.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
-                menu.pushItem(processing.get(b).getOutput()[0].clone(), getOutputSlots());
+                menu.pushItem(getProcessing(b).getOutput()[0].clone(), getOutputSlots());
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else {
             for (int slot : getInputSlots()) {
@@ -96,8 +95,7 @@ public abstract class ElectricDustWasher extends AContainer {
 
             if (!legacyMode || menu.fits(r.getOutput()[0], getOutputSlots())) {
                 menu.consumeItem(slot);
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
 
             return true;
@@ -106,8 +104,7 @@ public abstract class ElectricDustWasher extends AContainer {
 
             if (menu.fits(r.getOutput()[0], getOutputSlots())) {
                 menu.consumeItem(slot);
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
 
             return true;
@@ -57,17 +57,17 @@ public abstract class ElectricGoldPan extends AContainer implements RecipeDispla
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
 
             if (timeleft > 0 && getSpeed() < 10) {
-                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
                 }
 
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else if (ChargableBlock.isChargable(b)) {
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
@@ -76,14 +76,13 @@ public abstract class ElectricGoldPan extends AContainer implements RecipeDispla
 
                 menu.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
 
-                ItemStack output = processing.get(b).getOutput()[0];
+                ItemStack output = getProcessing(b).getOutput()[0];
 
                 if (output.getType() != Material.AIR) {
                     menu.pushItem(output.clone(), getOutputSlots());
                 }
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else {
             for (int slot : getInputSlots()) {
@@ -112,8 +111,7 @@ public abstract class ElectricGoldPan extends AContainer implements RecipeDispla
 
             if (menu.fits(output, getOutputSlots())) {
                 menu.consumeItem(slot);
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
 
             return true;
@@ -124,8 +122,7 @@ public abstract class ElectricGoldPan extends AContainer implements RecipeDispla
 
             if (menu.fits(output, getOutputSlots())) {
                 menu.consumeItem(slot);
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
 
             return true;
@@ -110,8 +110,6 @@ public abstract class ElectricSmeltery extends AContainer {
                 }
             }
 
-            progress.remove(b);
-            processing.remove(b);
             return true;
         });
 
@@ -136,23 +136,22 @@ public abstract class HeatedPressureChamber extends AContainer {
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
 
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) {
                     return;
                 }
 
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 menu.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
-                menu.pushItem(processing.get(b).getOutput()[0], getOutputSlots());
+                menu.pushItem(getProcessing(b).getOutput()[0], getOutputSlots());
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else {
             Map<Integer, Integer> found = new HashMap<>();
@@ -167,8 +166,7 @@ public abstract class HeatedPressureChamber extends AContainer {
                     menu.consumeItem(entry.getKey(), entry.getValue());
                 }
 
-                processing.put(b, recipe);
-                progress.put(b, recipe.getTicks());
+                startProcessing(b, recipe);
             }
         }
     }
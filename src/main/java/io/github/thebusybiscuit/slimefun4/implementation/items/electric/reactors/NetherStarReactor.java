@@ -1,7 +1,7 @@
 package io.github.thebusybiscuit.slimefun4.implementation.items.electric.reactors;
 
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
-import io.github.thebusybiscuit.slimefun4.utils.holograms.ReactorHologram;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import me.mrCookieSlime.Slimefun.Lists.RecipeType;
 import me.mrCookieSlime.Slimefun.Objects.Category;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems.MachineFuel;
@@ -9,6 +9,7 @@ import me.mrCookieSlime.Slimefun.api.Slimefun;
 import me.mrCookieSlime.Slimefun.api.SlimefunItemStack;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.inventory.ItemStack;
@@ -41,9 +42,14 @@ public abstract class NetherStarReactor extends Reactor {
     @Override
     public void extraTick(Location l) {
         Slimefun.runSync(() -> {
-            for (Entity entity : ReactorHologram.getArmorStand(l, true).getNearbyEntities(5, 5, 5)) {
-                if (entity instanceof LivingEntity) {
-                    ((LivingEntity) entity).addPotionEffect(new PotionEffect(PotionEffectType.WITHER, 60, 1));
+            ArmorStand hologram = SlimefunPlugin.getHologramsService().getHologram(l);
+
+            // The hologram is created by the first coolant update of this reactor
+            if (hologram != null) {
+                for (Entity entity : hologram.getNearbyEntities(5, 5, 5)) {
+                    if (entity instanceof LivingEntity) {
+                        ((LivingEntity) entity).addPotionEffect(new PotionEffect(PotionEffectType.WITHER, 60, 1));
+                    }
                 }
             }
         }, 0L);
@@ -3,6 +3,9 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.electric.reactor
 import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.cscorelib2.protection.ProtectableAction;
 import io.github.thebusybiscuit.slimefun4.api.events.ReactorExplodeEvent;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineState;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateView;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.implementation.items.cargo.ReactorAccessPort;
@@ -39,6 +42,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * The abstract {@link Reactor} class is very similar to {@link AGenerator} but is
@@ -51,9 +55,6 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public abstract class Reactor extends AbstractEnergyProvider {
 
-    public static Map<Location, MachineFuel> processing = new HashMap<>();
-    public static Map<Location, Integer> progress = new HashMap<>();
-
     private static final String MODE = "reactor-mode";
     private static final int INFO_SLOT = 49;
     private static final int COOLANT_DURATION = 50;
@@ -67,9 +68,25 @@ public abstract class Reactor extends AbstractEnergyProvider {
     // No coolant border
     private static final int[] border_4 = {25, 34, 43};
 
+    /**
+     * @deprecated Use {@link #getMachineState(Location)} instead
+     */
+    @Deprecated
+    public static Map<Location, MachineFuel> processing = MachineStateView.operations(Reactor.class, item -> ((Reactor) item).machineStates, Function.identity(), Function.identity(), MachineFuel::getTicks);
+
+    /**
+     * @deprecated Use {@link #getMachineState(Location)} instead
+     */
+    @Deprecated
+    public static Map<Location, Integer> progress = MachineStateView.progress(Reactor.class, item -> ((Reactor) item).machineStates, Function.identity(), Function.identity());
+
+    private final MachineStateStore<MachineFuel> machineStates;
+
     public Reactor(Category category, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe) {
         super(category, item, recipeType, recipe);
 
+        machineStates = createFuelStateStore();
+
         new BlockMenuPreset(getID(), getInventoryTitle()) {
 
             @Override
@@ -156,8 +173,6 @@ public abstract class Reactor extends AbstractEnergyProvider {
                 }
             }
 
-            progress.remove(b.getLocation());
-            processing.remove(b.getLocation());
             SimpleHologram.remove(b);
             return true;
         });
@@ -245,12 +260,24 @@ public abstract class Reactor extends AbstractEnergyProvider {
         return new int[]{40};
     }
 
+    /**
+     * This returns the {@link MachineState} of the {@link Reactor} at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of this {@link Reactor}
+     * @return The current {@link MachineState} or null if this {@link Reactor} is idle
+     */
+    public MachineState<MachineFuel> getMachineState(Location l) {
+        return machineStates.get(l);
+    }
+
     public MachineFuel getProcessing(Location l) {
-        return processing.get(l);
+        MachineState<MachineFuel> state = getMachineState(l);
+        return state == null ? null : state.getOperation();
     }
 
     public boolean isProcessing(Location l) {
-        return progress.containsKey(l);
+        return getMachineState(l) != null;
     }
 
     @Override
@@ -265,21 +292,23 @@ public abstract class Reactor extends AbstractEnergyProvider {
                 BlockMenu accessPort = getAccessPort(l);
                 int charge = ChargableBlock.getCharge(l);
 
-                if (isProcessing(l)) {
+                MachineState<MachineFuel> state = getMachineState(l);
+
+                if (state != null) {
                     extraTick(l);
-                    int timeleft = progress.get(l);
+                    int timeleft = state.getRemainingTicks();
 
                     if (timeleft > 0) {
                         int produced = getEnergyProduction();
                         int space = getCapacity() - charge;
 
                         if (space >= produced || !ReactorMode.GENERATOR.toString().equals(BlockStorage.getLocationInfo(l, MODE))) {
-                            progress.put(l, timeleft - 1);
+                            state.setRemainingTicks(timeleft - 1);
                             checkForWaterBlocks(l);
 
-                            ChestMenuUtils.updateProgressbar(inv, 22, timeleft, processing.get(l).getTicks(), getProgressBar());
+                            ChestMenuUtils.updateProgressbar(inv, 22, timeleft, state.getTotalTicks(), getProgressBar());
 
-                            if (needsCooling() && !hasEnoughCoolant(l, inv, accessPort, timeleft)) {
+                            if (needsCooling() && !hasEnoughCoolant(l, inv, accessPort, state.getTotalTicks(), timeleft)) {
                                 explosionsQueue.add(l);
                                 return 0;
                             }
@@ -293,7 +322,7 @@ public abstract class Reactor extends AbstractEnergyProvider {
                         }
                     }
                     else {
-                        createByproduct(l, inv, accessPort);
+                        createByproduct(l, inv, accessPort, state.getOperation());
                         return charge;
                     }
                 }
@@ -317,8 +346,7 @@ public abstract class Reactor extends AbstractEnergyProvider {
                     });
 
                     explosionsQueue.remove(l);
-                    processing.remove(l);
-                    progress.remove(l);
+                    machineStates.finish(l);
                 }
 
                 return explosion;
@@ -338,11 +366,11 @@ public abstract class Reactor extends AbstractEnergyProvider {
         };
     }
 
-    private void createByproduct(Location l, BlockMenu inv, BlockMenu accessPort) {
+    private void createByproduct(Location l, BlockMenu inv, BlockMenu accessPort, MachineFuel fuel) {
         inv.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
 
-        if (processing.get(l).getOutput() != null) {
-            inv.pushItem(processing.get(l).getOutput(), getOutputSlots());
+        if (fuel.getOutput() != null) {
+            inv.pushItem(fuel.getOutput(), getOutputSlots());
         }
 
         if (accessPort != null) {
@@ -353,8 +381,7 @@ public abstract class Reactor extends AbstractEnergyProvider {
             }
         }
 
-        progress.remove(l);
-        processing.remove(l);
+        machineStates.finish(l);
     }
 
     private void burnNextFuel(Location l, BlockMenu inv, BlockMenu accessPort) {
@@ -370,8 +397,7 @@ public abstract class Reactor extends AbstractEnergyProvider {
                 inv.consumeItem(entry.getKey(), entry.getValue());
             }
 
-            processing.put(l, fuel);
-            progress.put(l, fuel.getTicks());
+            machineStates.start(l, fuel, fuel.getTicks());
         }
     }
 
@@ -381,11 +407,12 @@ public abstract class Reactor extends AbstractEnergyProvider {
      * @param reactor    The {@link Location} of this {@link Reactor}
      * @param menu       The {@link Inventory} of this {@link Reactor}
      * @param accessPort The {@link ReactorAccessPort}, if available
+     * @param totalTicks The total duration of the current fuel
      * @param timeleft   The time left
      * @return Whether the {@link Reactor} was successfully cooled, if not it should explode
      */
-    private boolean hasEnoughCoolant(Location reactor, BlockMenu menu, BlockMenu accessPort, int timeleft) {
-        boolean requiresCoolant = (processing.get(reactor).getTicks() - timeleft) % COOLANT_DURATION == 0;
+    private boolean hasEnoughCoolant(Location reactor, BlockMenu menu, BlockMenu accessPort, int totalTicks, int timeleft) {
+        boolean requiresCoolant = (totalTicks - timeleft) % COOLANT_DURATION == 0;
 
         if (requiresCoolant) {
             if (accessPort != null) {
@@ -406,7 +433,7 @@ public abstract class Reactor extends AbstractEnergyProvider {
 
             return false;
         } else {
-            ReactorHologram.update(reactor, "&b\u2744 &7" + getPercentage(timeleft, processing.get(reactor).getTicks()) + "%");
+            ReactorHologram.update(reactor, "&b\u2744 &7" + getPercentage(timeleft, totalTicks) + "%");
         }
 
         return true;
@@ -72,8 +72,6 @@ public abstract class GEOMiner extends AContainer implements InventoryBlock, Rec
                     }
                 }
 
-                progress.remove(b);
-                processing.remove(b);
                 return true;
             }
         });
@@ -155,21 +153,20 @@ public abstract class GEOMiner extends AContainer implements InventoryBlock, Rec
         BlockMenu menu = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
 
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(menu, 4, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(menu, 4, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) return;
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
 
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 menu.replaceExistingItem(4, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
-                menu.pushItem(processing.get(b).getOutput()[0], getOutputSlots());
+                menu.pushItem(getProcessing(b).getOutput()[0], getOutputSlots());
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else if (!BlockStorage.hasChunkInfo(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
             SimpleHologram.update(b, "&4GEO-Scan required!");
@@ -188,8 +185,7 @@ public abstract class GEOMiner extends AContainer implements InventoryBlock, Rec
                             MachineRecipe r = new MachineRecipe(PROCESSING_TIME / getSpeed(), new ItemStack[0], new ItemStack[]{resource.getItem().clone()});
                             if (!menu.fits(r.getOutput()[0], getOutputSlots())) return;
 
-                            processing.put(b, r);
-                            progress.put(b, r.getTicks());
+                            startProcessing(b, r);
                             SlimefunPlugin.getGPSNetwork().getResourceManager().setSupplies(resource, b.getWorld(), b.getX() >> 4, b.getZ() >> 4, supplies - 1);
                             SimpleHologram.update(b, "&7正在开采 &r" + resource.getName());
                             return;
@@ -91,21 +91,20 @@ public abstract class OilPump extends AContainer implements RecipeDisplayItem {
         BlockMenu inv = BlockStorage.getInventory(b);
 
         if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+            int timeleft = getProgress(b);
 
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(inv, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(inv, 22, timeleft, getProcessing(b).getTicks(), getProgressBar());
 
                 if (ChargableBlock.getCharge(b) < getEnergyConsumption()) return;
                 ChargableBlock.addCharge(b, -getEnergyConsumption());
 
-                progress.put(b, timeleft - 1);
+                setProgress(b, timeleft - 1);
             } else {
                 inv.replaceExistingItem(22, new CustomItem(Material.BLACK_STAINED_GLASS_PANE, " "));
                 inv.pushItem(SlimefunItems.OIL_BUCKET, getOutputSlots());
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         } else if (inv.fits(SlimefunItems.OIL_BUCKET, getOutputSlots())) {
             for (int slot : getInputSlots()) {
@@ -116,8 +115,7 @@ public abstract class OilPump extends AContainer implements RecipeDisplayItem {
                         MachineRecipe r = new MachineRecipe(26, new ItemStack[0], new ItemStack[]{SlimefunItems.OIL_BUCKET});
 
                         inv.consumeItem(slot);
-                        processing.put(b, r);
-                        progress.put(b, r.getTicks());
+                        startProcessing(b, r);
                         SlimefunPlugin.getGPSNetwork().getResourceManager().setSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4, supplies.getAsInt() - 1);
                     }
                     else {
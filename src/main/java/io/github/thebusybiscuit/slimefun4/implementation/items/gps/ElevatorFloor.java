@@ -0,0 +1,32 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.gps;
+
+/**
+ * An {@link ElevatorFloor} is a single {@link ElevatorPlate} within a column of plates.
+ * It only remembers the height and the name of the floor, the column is known by its {@link ElevatorPlate}.
+ *
+ * @see ElevatorPlate
+ */
+final class ElevatorFloor {
+
+    private final int y;
+    private final String name;
+
+    ElevatorFloor(int y, String name) {
+        this.y = y;
+        this.name = name;
+    }
+
+    int getY() {
+        return y;
+    }
+
+    /**
+     * This returns the name of this floor, color codes have not been translated yet.
+     *
+     * @return The name of this floor
+     */
+    String getName() {
+        return name;
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.implementation.items.gps;
 
+import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
 import io.github.thebusybiscuit.cscorelib2.chat.json.ChatComponent;
 import io.github.thebusybiscuit.cscorelib2.chat.json.ClickEvent;
@@ -28,12 +29,17 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
     private static final String DATA_KEY = "floor";
 
     private final Set<UUID> users = new HashSet<>();
 
+    // Every column of plates is scanned once, after that it is kept up to date when plates are placed, broken or renamed
+    private final Map<BlockPosition, List<ElevatorFloor>> columns = new ConcurrentHashMap<>();
+
     public ElevatorPlate(Category category, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe, ItemStack recipeOutput) {
         super(category, item, recipeType, recipe, recipeOutput);
 
@@ -43,10 +49,12 @@ public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
             public void onPlace(Player p, Block b, SlimefunItem item) {
                 BlockStorage.addBlockInfo(b, DATA_KEY, "&r一楼");
                 BlockStorage.addBlockInfo(b, "owner", p.getUniqueId().toString());
+                updateFloor(b, floors -> addFloor(floors, new ElevatorFloor(b.getY(), "&r一楼")));
             }
 
             @Override
             public boolean onBreak(Player p, Block b, SlimefunItem item, UnregisterReason reason) {
+                updateFloor(b, floors -> removeFloor(floors, b.getY()));
                 return true;
             }
         });
@@ -70,24 +78,116 @@ public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
     }
 
     public List<Block> getFloors(Block b) {
-        List<Block> floors = new LinkedList<>();
+        List<ElevatorFloor> floors = getColumn(b);
+        List<Block> blocks = new ArrayList<>(floors.size());
+
+        for (ElevatorFloor floor : floors) {
+            blocks.add(b.getWorld().getBlockAt(b.getX(), floor.getY(), b.getZ()));
+        }
+
+        return blocks;
+    }
 
-        for (int y = 0; y < b.getWorld().getMaxHeight(); y++) {
-            if (b.getY() == y) {
-                floors.add(b);
-                continue;
+    /**
+     * This returns every floor in the column of the given {@link ElevatorPlate}, sorted from top to bottom.
+     * Floors that have been removed without us noticing are dropped from the column.
+     *
+     * @param b
+     *            The {@link Block} of an {@link ElevatorPlate}
+     * @return All floors in this column
+     */
+    private List<ElevatorFloor> getColumn(Block b) {
+        BlockPosition column = getColumnPosition(b);
+        List<ElevatorFloor> floors = columns.computeIfAbsent(column, key -> scanColumn(b));
+        List<ElevatorFloor> valid = floors;
+        boolean current = false;
+
+        for (ElevatorFloor floor : floors) {
+            if (floor.getY() == b.getY()) {
+                current = true;
+            } else if (!isFloor(b.getWorld().getBlockAt(b.getX(), floor.getY(), b.getZ()))) {
+                valid = removeFloor(valid, floor.getY());
             }
+        }
+
+        if (!current) {
+            valid = addFloor(valid, new ElevatorFloor(b.getY(), BlockStorage.getLocationInfo(b.getLocation(), DATA_KEY)));
+        }
 
+        if (valid != floors) {
+            columns.put(column, valid);
+        }
+
+        return valid;
+    }
+
+    private List<ElevatorFloor> scanColumn(Block b) {
+        List<ElevatorFloor> floors = new ArrayList<>();
+
+        for (int y = b.getWorld().getMaxHeight() - 1; y >= 0; y--) {
             Block block = b.getWorld().getBlockAt(b.getX(), y, b.getZ());
 
-            if (BlockStorage.check(block, getID()) && block.getType() == getItem().getType()) {
-                floors.add(block);
+            if (y == b.getY() || isFloor(block)) {
+                floors.add(new ElevatorFloor(y, BlockStorage.getLocationInfo(block.getLocation(), DATA_KEY)));
+            }
+        }
+
+        return Collections.unmodifiableList(floors);
+    }
+
+    private boolean isFloor(Block block) {
+        return BlockStorage.check(block, getID()) && block.getType() == getItem().getType();
+    }
+
+    /**
+     * This updates the column of the given {@link Block} if it has been scanned already.
+     * Columns are never modified in place, so they can safely be iterated while they are updated.
+     *
+     * @param b
+     *            The {@link Block} of an {@link ElevatorPlate}
+     * @param function
+     *            The update
+     */
+    private void updateFloor(Block b, UnaryOperator<List<ElevatorFloor>> function) {
+        columns.computeIfPresent(getColumnPosition(b), (column, floors) -> function.apply(floors));
+    }
+
+    private static List<ElevatorFloor> addFloor(List<ElevatorFloor> floors, ElevatorFloor floor) {
+        List<ElevatorFloor> list = new ArrayList<>(floors.size() + 1);
+        boolean added = false;
+
+        for (ElevatorFloor existing : floors) {
+            if (!added && existing.getY() <= floor.getY()) {
+                list.add(floor);
+                added = true;
+            }
+
+            if (existing.getY() != floor.getY()) {
+                list.add(existing);
             }
         }
 
-        floors.sort((b1, b2) -> b2.getY() - b1.getY());
+        if (!added) {
+            list.add(floor);
+        }
+
+        return Collections.unmodifiableList(list);
+    }
+
+    private static List<ElevatorFloor> removeFloor(List<ElevatorFloor> floors, int y) {
+        List<ElevatorFloor> list = new ArrayList<>(floors.size());
+
+        for (ElevatorFloor floor : floors) {
+            if (floor.getY() != y) {
+                list.add(floor);
+            }
+        }
+
+        return Collections.unmodifiableList(list);
+    }
 
-        return floors;
+    private static BlockPosition getColumnPosition(Block b) {
+        return new BlockPosition(b.getWorld(), b.getX(), 0, b.getZ());
     }
 
     public void open(Player p, Block b) {
@@ -98,7 +198,7 @@ public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
         CustomBookInterface book = new CustomBookInterface(SlimefunPlugin.instance);
         ChatComponent page = null;
 
-        List<Block> floors = getFloors(b);
+        List<ElevatorFloor> floors = getColumn(b);
 
         if (floors.size() < 2) {
             SlimefunPlugin.getLocalization().sendMessage(p, "machines.ELEVATOR.no-destinations", true);
@@ -113,8 +213,8 @@ public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
                 page = new ChatComponent(ChatColors.color(SlimefunPlugin.getLocalization().getMessage(p, "machines.ELEVATOR.pick-a-floor")) + "\n");
             }
 
-            Block block = floors.get(i);
-            String floor = ChatColors.color(BlockStorage.getLocationInfo(block.getLocation(), DATA_KEY));
+            Block block = b.getWorld().getBlockAt(b.getX(), floors.get(i).getY(), b.getZ());
+            String floor = ChatColors.color(floors.get(i).getName());
             ChatComponent line;
 
             if (block.getY() == b.getY()) {
@@ -158,7 +258,9 @@ public class ElevatorPlate extends SimpleSlimefunItem<BlockUseHandler> {
             pl.sendMessage("");
 
             ChatUtils.awaitInput(pl, message -> {
-                BlockStorage.addBlockInfo(b, DATA_KEY, message.replace(ChatColor.COLOR_CHAR, '&'));
+                String name = message.replace(ChatColor.COLOR_CHAR, '&');
+                BlockStorage.addBlockInfo(b, DATA_KEY, name);
+                updateFloor(b, floors -> addFloor(floors, new ElevatorFloor(b.getY(), name)));
 
                 pl.sendMessage("");
                 SlimefunPlugin.getLocalization().sendMessage(p, "machines.ELEVATOR.named", msg -> msg.replace("%floor%", message));
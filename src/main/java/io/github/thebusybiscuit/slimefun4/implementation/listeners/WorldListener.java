@@ -3,8 +3,12 @@ package io.github.thebusybiscuit.slimefun4.implementation.listeners;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.Slimefun;
+import org.bukkit.Chunk;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.event.world.WorldUnloadEvent;
 
@@ -22,8 +26,30 @@ public class WorldListener implements Listener {
         BlockStorage.getForcedStorage(e.getWorld());
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent e) {
+        Chunk chunk = e.getChunk();
+        BlockStorage storage = BlockStorage.getStorage(e.getWorld());
+
+        if (storage != null) {
+            // Loading a whole region right here would stall the chunk load, it is loaded within the next ticks instead
+            storage.queueHydration(chunk.getX(), chunk.getZ());
+        }
+
+        SlimefunPlugin.getRegistry().getTickingChunks().setLoaded(e.getWorld(), chunk.getX(), chunk.getZ(), true);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        Chunk chunk = e.getChunk();
+        SlimefunPlugin.getRegistry().getTickingChunks().setLoaded(e.getWorld(), chunk.getX(), chunk.getZ(), false);
+        SlimefunPlugin.getMachineStateService().unloadChunk(e.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
     @EventHandler
     public void onWorldUnload(WorldUnloadEvent e) {
+        SlimefunPlugin.getRegistry().getTickingChunks().unloadWorld(e.getWorld());
+        SlimefunPlugin.getMachineStateService().unloadWorld(e.getWorld());
         BlockStorage storage = BlockStorage.getStorage(e.getWorld());
 
         if (storage != null) {
@@ -45,6 +45,8 @@ public class SlimefunStartupTask implements Runnable {
 
         // Load all worlds
         SlimefunPlugin.getWorldSettingsService().load(Bukkit.getWorlds());
+        BlockStorage.indexInventories();
+
         for (World world : Bukkit.getWorlds()) {
             try {
                 new BlockStorage(world);
@@ -53,6 +55,8 @@ public class SlimefunStartupTask implements Runnable {
             }
         }
 
+        BlockStorage.clearInventoryIndex();
+
         // Load all listeners that depend on items to be enabled
         if (isEnabled("ELEVATOR_PLATE", "GPS_ACTIVATION_DEVICE_SHARED", "GPS_ACTIVATION_DEVICE_PERSONAL")) {
             new TeleporterListener(plugin);
@@ -0,0 +1,81 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+import org.bukkit.Location;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The {@link SyncTickQueue} collects the work of all synchronized {@link BlockTicker BlockTickers}.
+ * Instead of scheduling one task per block, a single task on the main thread drains this queue
+ * every server tick, limited by a configurable time budget.
+ * Anything that could not be done within that budget is carried over to the next server tick.
+ * Queued ticks may therefore run several ticks later, so they have to check whether their block still exists.
+ *
+ * @see TickerTask
+ */
+class SyncTickQueue implements Runnable {
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Set<Location> pending = ConcurrentHashMap.newKeySet();
+    private final long budget;
+
+    SyncTickQueue(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * This queues the synchronized tick of the block at the given {@link Location}.
+     * A block can only be queued once, it will not be queued again until its pending tick was run.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param task
+     *            The tick to run on the main thread
+     * @return Whether the tick was queued
+     */
+    boolean schedule(Location l, Runnable task) {
+        if (pending.add(l)) {
+            queue.add(new Entry(l, task));
+            return true;
+        }
+
+        return false;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    void start(SlimefunPlugin plugin) {
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        Entry entry;
+
+        while ((budget <= 0 || System.nanoTime() - start < budget) && (entry = queue.poll()) != null) {
+            pending.remove(entry.location);
+            entry.task.run();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Location location;
+        private final Runnable task;
+
+        private Entry(Location location, Runnable task) {
+            this.location = location;
+            this.task = task;
+        }
+
+    }
+
+}
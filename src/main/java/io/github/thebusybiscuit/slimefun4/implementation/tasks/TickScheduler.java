@@ -0,0 +1,228 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunk;
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunkRegistry;
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link TickScheduler} limits how much time the {@link TickerTask} may spend per cycle.
+ * <p>
+ * Cheap {@link BlockTicker BlockTickers} get a priority lane and are ticked every cycle.
+ * All other blocks are ticked chunk by chunk, ordered by world and coordinates, until the
+ * budget of this cycle is used up. At least one batch is ticked every cycle, even if the cheap lane
+ * used up the whole budget, so the sweep always makes progress. The next cycle resumes after the last
+ * chunk that was ticked, so chunks that load or unload in between neither shift nor repeat the sweep.
+ * <p>
+ * The {@link Lane} of every block is cached by its {@link Location}, so a lane can skip the blocks
+ * of the other lane without looking up their data first.
+ *
+ * @see TickerTask
+ */
+class TickScheduler {
+
+    enum Lane {
+
+        /**
+         * Every block is ticked, this is used when no budget is configured.
+         */
+        ALL,
+
+        /**
+         * Only blocks with a cheap {@link BlockTicker} are ticked.
+         */
+        CHEAP,
+
+        /**
+         * Only blocks which do not have a cheap {@link BlockTicker} are ticked.
+         */
+        EXPENSIVE
+
+    }
+
+    private static final Comparator<TickingChunk> ORDER = Comparator.comparing(TickingChunk::getWorldId).thenComparingInt(TickingChunk::getX).thenComparingInt(TickingChunk::getZ);
+
+    private final long budget;
+    private final long cheapThreshold;
+    private final Map<BlockTicker, Long> averages = new ConcurrentHashMap<>();
+    private final Map<Location, Lane> lanes = new ConcurrentHashMap<>();
+
+    // The last chunk of the current sweep that was ticked, null if a new sweep should begin
+    private TickingChunk lastChunk;
+    private volatile int backlog = 0;
+
+    TickScheduler(long budget, long cheapThreshold) {
+        this.budget = budget;
+        this.cheapThreshold = cheapThreshold;
+    }
+
+    /**
+     * This returns whether a budget was configured.
+     * If not, the {@link TickerTask} should simply tick everything at once.
+     *
+     * @return Whether this scheduler is enabled
+     */
+    boolean isEnabled() {
+        return budget > 0;
+    }
+
+    /**
+     * This returns the amount of blocks in all chunks that were not reached yet during the current sweep.
+     *
+     * @return The current backlog
+     */
+    int getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * This checks the cached {@link Lane} of the block at the given {@link Location}.
+     * Blocks that were not classified yet are always accepted.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param lane
+     *            The {@link Lane} that is currently being ticked
+     * @return Whether the block may belong to the given {@link Lane}
+     */
+    boolean accepts(Location l, Lane lane) {
+        if (lane == Lane.ALL) {
+            return true;
+        }
+
+        Lane cached = lanes.get(l);
+        return cached == null || cached == lane;
+    }
+
+    /**
+     * This classifies the block at the given {@link Location} by its {@link BlockTicker}
+     * and caches the result for the following cycles.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param ticker
+     *            The {@link BlockTicker} of the block
+     * @param lane
+     *            The {@link Lane} that is currently being ticked
+     * @return Whether the block belongs to the given {@link Lane}
+     */
+    boolean accepts(Location l, BlockTicker ticker, Lane lane) {
+        if (lane == Lane.ALL) {
+            return true;
+        }
+
+        Lane actual = isCheap(ticker) ? Lane.CHEAP : Lane.EXPENSIVE;
+        lanes.put(l, actual);
+        return actual == lane;
+    }
+
+    /**
+     * This removes the cached {@link Lane} of the block at the given {@link Location}.
+     * It must be called whenever a block is removed or moved.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     */
+    void forget(Location l) {
+        lanes.remove(l);
+    }
+
+    private boolean isCheap(BlockTicker ticker) {
+        // Tickers we have not measured yet are treated as expensive
+        Long average = averages.get(ticker);
+        return average != null && average <= cheapThreshold;
+    }
+
+    void record(BlockTicker ticker, long elapsedTime) {
+        // An exponential moving average with a weight of 1/8 for the newest measurement
+        averages.merge(ticker, elapsedTime, (average, time) -> average - (average >> 3) + (time >> 3));
+    }
+
+    /**
+     * This runs one budgeted cycle.
+     *
+     * @param chunks
+     *            All loaded {@link TickingChunk TickingChunks}
+     * @param batchSize
+     *            The amount of chunks that should be handed over to the ticker at once
+     * @param ticker
+     *            The callback which ticks the given chunks for the given {@link Lane}
+     */
+    void run(List<TickingChunk> chunks, int batchSize, BiConsumer<List<TickingChunk>, Lane> ticker) {
+        long start = System.nanoTime();
+        ticker.accept(chunks, Lane.CHEAP);
+
+        // The snapshot is rebuilt in a different order whenever a chunk loads or unloads, so we sort it
+        List<TickingChunk> ordered = new ArrayList<>(chunks);
+        ordered.sort(ORDER);
+
+        if (lastChunk == null) {
+            // Start a new sweep
+            prune(ordered);
+        }
+
+        int index = next(ordered);
+        boolean first = true;
+
+        while (index < ordered.size() && (first || System.nanoTime() - start < budget)) {
+            first = false;
+            List<TickingChunk> batch = ordered.subList(index, Math.min(index + batchSize, ordered.size()));
+            index += batch.size();
+            lastChunk = batch.get(batch.size() - 1);
+            ticker.accept(batch, Lane.EXPENSIVE);
+        }
+
+        int blocks = 0;
+
+        for (int i = index; i < ordered.size(); i++) {
+            blocks += ordered.get(i).size();
+        }
+
+        if (index >= ordered.size()) {
+            lastChunk = null;
+        }
+
+        backlog = blocks;
+    }
+
+    private int next(List<TickingChunk> ordered) {
+        if (lastChunk == null) {
+            return 0;
+        }
+
+        // The last chunk may have been unloaded since, so we look for the first chunk that comes after it
+        int index = Collections.binarySearch(ordered, lastChunk, ORDER);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void prune(List<TickingChunk> ordered) {
+        // Cached lanes of blocks in chunks that are no longer loaded are dropped once per sweep
+        Map<UUID, Set<Long>> loaded = new HashMap<>();
+
+        for (TickingChunk chunk : ordered) {
+            loaded.computeIfAbsent(chunk.getWorldId(), id -> new HashSet<>()).add(TickingChunkRegistry.getChunkKey(chunk.getX(), chunk.getZ()));
+        }
+
+        lanes.keySet().removeIf(l -> {
+            if (!l.isWorldLoaded()) {
+                return true;
+            }
+
+            Set<Long> keys = loaded.get(l.getWorld().getUID());
+            return keys == null || !keys.contains(TickingChunkRegistry.getChunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4));
+        });
+    }
+
+}
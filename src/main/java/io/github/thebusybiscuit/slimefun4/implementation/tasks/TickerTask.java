@@ -2,8 +2,10 @@ package io.github.thebusybiscuit.slimefun4.implementation.tasks;
 
 import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.ErrorReport;
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunk;
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunkRegistry;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
-import io.github.thebusybiscuit.slimefun4.utils.PatternUtils;
+import io.github.thebusybiscuit.slimefun4.implementation.tasks.TickScheduler.Lane;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunItem.SlimefunItem;
 import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
@@ -12,25 +14,36 @@ import me.mrCookieSlime.Slimefun.api.Slimefun;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.World;
 import org.bukkit.block.Block;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Level;
 
 public class TickerTask implements Runnable {
 
-    private final Set<BlockTicker> tickers = new HashSet<>();
+    // Region tasks may add to this Set concurrently when parallel ticking is enabled
+    private final Set<BlockTicker> tickers = ConcurrentHashMap.newKeySet();
 
     // These are "Queues" of blocks that need to be removed or moved
     private final Map<Location, Location> movingQueue = new ConcurrentHashMap<>();
     private final Map<Location, Boolean> deletionQueue = new ConcurrentHashMap<>();
     private final Map<BlockPosition, Integer> bugs = new ConcurrentHashMap<>();
 
+    private ForkJoinPool pool;
+    private TickScheduler scheduler = new TickScheduler(0, 0);
+    private SyncTickQueue syncQueue = new SyncTickQueue(0);
+
     private boolean halted = false;
     private boolean running = false;
 
@@ -51,27 +64,18 @@ public class TickerTask implements Runnable {
         while (removals.hasNext()) {
             Map.Entry<Location, Boolean> entry = removals.next();
             BlockStorage._integrated_removeBlockInfo(entry.getKey(), entry.getValue());
+            scheduler.forget(entry.getKey());
             removals.remove();
         }
 
         if (!halted) {
-            for (String chunk : BlockStorage.getTickingChunks()) {
-                try {
-                    Set<Location> locations = BlockStorage.getTickingLocations(chunk);
-                    String[] components = PatternUtils.SEMICOLON.split(chunk);
-
-                    World world = Bukkit.getWorld(components[0]);
-                    int x = Integer.parseInt(components[components.length - 2]);
-                    int z = Integer.parseInt(components[components.length - 1]);
-
-                    if (world != null && world.isChunkLoaded(x, z)) {
-                        for (Location l : locations) {
-                            tick(l);
-                        }
-                    }
-                } catch (ArrayIndexOutOfBoundsException | NumberFormatException x) {
-                    Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Exception has occured while trying to parse Chunk: " + chunk);
-                }
+            // Unloaded chunks are not part of this snapshot, so we do not need to check them here
+            List<TickingChunk> chunks = SlimefunPlugin.getRegistry().getTickingChunks().getLoadedChunks();
+
+            if (scheduler.isEnabled()) {
+                scheduler.run(chunks, pool == null ? 1 : pool.getParallelism() * 2, this::tickChunks);
+            } else {
+                tickChunks(chunks, Lane.ALL);
             }
         }
 
@@ -79,6 +83,8 @@ public class TickerTask implements Runnable {
         while (moves.hasNext()) {
             Map.Entry<Location, Location> entry = moves.next();
             BlockStorage._integrated_moveLocationInfo(entry.getKey(), entry.getValue());
+            scheduler.forget(entry.getKey());
+            scheduler.forget(entry.getValue());
             moves.remove();
         }
 
@@ -92,22 +98,110 @@ public class TickerTask implements Runnable {
         SlimefunPlugin.getProfiler().stop();
     }
 
-    private void tick(Location l) {
+    private void tickChunks(List<TickingChunk> chunks, Lane lane) {
+        if (pool != null) {
+            tickInParallel(chunks, lane);
+        } else {
+            for (TickingChunk chunk : chunks) {
+                for (Location l : chunk.getLocations()) {
+                    tick(l, false, lane);
+                }
+            }
+        }
+    }
+
+    private void tickInParallel(List<TickingChunk> chunks, Lane lane) {
+        // Chunks are grouped into regions of 32x32 chunks, every region is ticked by one task
+        Map<UUID, Map<Long, List<TickingChunk>>> regions = new HashMap<>();
+
+        for (TickingChunk chunk : chunks) {
+            long region = TickingChunkRegistry.getChunkKey(chunk.getX() >> 5, chunk.getZ() >> 5);
+            regions.computeIfAbsent(chunk.getWorldId(), id -> new HashMap<>()).computeIfAbsent(region, key -> new ArrayList<>()).add(chunk);
+        }
+
+        Queue<Location> deferred = new ConcurrentLinkedQueue<>();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        for (Map<Long, List<TickingChunk>> world : regions.values()) {
+            for (List<TickingChunk> region : world.values()) {
+                tasks.add(pool.submit(() -> {
+                    for (TickingChunk chunk : region) {
+                        for (Location l : chunk.getLocations()) {
+                            if (!tick(l, true, lane)) {
+                                deferred.add(l);
+                            }
+                        }
+                    }
+                }));
+            }
+        }
+
+        // This is our barrier, the queues and startNewTick() must not run while a region is still being ticked
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        // Tickers that did not opt in to concurrency are still ticked one after another
+        for (Location l : deferred) {
+            tick(l, false, lane);
+        }
+    }
+
+    /**
+     * This ticks the block at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param concurrent
+     *            Whether we are currently running inside a parallel region task
+     * @param lane
+     *            The {@link Lane} of the {@link TickScheduler} that is currently being ticked
+     * @return false if this block must be ticked outside of a parallel region task, otherwise true
+     */
+    private boolean tick(Location l, boolean concurrent, Lane lane) {
+        if (!scheduler.accepts(l, lane)) {
+            return true;
+        }
+
         Config data = BlockStorage.getLocationInfo(l);
         SlimefunItem item = SlimefunItem.getByID(data.getString("id"));
 
         if (item != null && item.getBlockTicker() != null) {
+            if (!scheduler.accepts(l, item.getBlockTicker(), lane)) {
+                return true;
+            }
+
+            if (concurrent && !item.getBlockTicker().isSynchronized() && !item.getBlockTicker().isConcurrent()) {
+                return false;
+            }
+
             try {
-                long timestamp = SlimefunPlugin.getProfiler().newEntry();
+                long start = System.nanoTime();
                 Block b = l.getBlock();
                 item.getBlockTicker().update();
 
                 if (item.getBlockTicker().isSynchronized()) {
-                    // We are ignoring the timestamp from above because synchronized actions
-                    // are always ran with a 50ms delay (1 game tick)
-                    Slimefun.runSync(() -> tickBlock(l, b, item, data, System.nanoTime()));
+                    // Synchronized actions are always ran with a delay of at least 50ms (1 game tick),
+                    // so they are only measured once they actually run
+                    syncQueue.schedule(l, () -> {
+                        // The block may have been broken, replaced or moved while this was queued
+                        if (BlockStorage.getLocationInfo(l) != data || !item.getID().equals(BlockStorage.checkID(l))) {
+                            return;
+                        }
+
+                        long timestamp = System.nanoTime();
+                        tickBlock(l, b, item, data, timestamp);
+
+                        if (scheduler.isEnabled()) {
+                            scheduler.record(item.getBlockTicker(), System.nanoTime() - timestamp);
+                        }
+                    });
                 } else {
-                    tickBlock(l, b, item, data, timestamp);
+                    tickBlock(l, b, item, data, SlimefunPlugin.getProfiler().newEntry());
+
+                    if (scheduler.isEnabled()) {
+                        scheduler.record(item.getBlockTicker(), System.nanoTime() - start);
+                    }
                 }
 
                 tickers.add(item.getBlockTicker());
@@ -115,6 +209,8 @@ public class TickerTask implements Runnable {
                 reportErrors(l, item, x);
             }
         }
+
+        return true;
     }
 
     private void tickBlock(Location l, Block b, SlimefunItem item, Config data, long timestamp) {
@@ -153,8 +249,22 @@ public class TickerTask implements Runnable {
         return halted;
     }
 
+    /**
+     * This returns the amount of blocks which have not been ticked yet during the current sweep.
+     * This is only tracked if a tick budget was configured.
+     *
+     * @return The amount of pending blocks, or -1 if no tick budget is configured
+     */
+    public int getBacklog() {
+        return scheduler.isEnabled() ? scheduler.getBacklog() : -1;
+    }
+
     public void halt() {
         halted = true;
+
+        if (pool != null) {
+            pool.shutdown();
+        }
     }
 
     @Override
@@ -171,6 +281,19 @@ public class TickerTask implements Runnable {
     }
 
     public void start(SlimefunPlugin plugin) {
+        if (SlimefunPlugin.getCfg().getBoolean("URID.parallel-ticking")) {
+            int threads = SlimefunPlugin.getCfg().getInt("URID.parallel-ticker-threads");
+            pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            plugin.getLogger().log(Level.INFO, "Parallel ticking is enabled ({0} threads)", pool.getParallelism());
+        }
+
+        long budget = SlimefunPlugin.getCfg().getInt("URID.tick-budget-nanos");
+        long cheapThreshold = SlimefunPlugin.getCfg().getInt("URID.cheap-ticker-threshold-nanos");
+        scheduler = new TickScheduler(budget, cheapThreshold);
+
+        syncQueue = new SyncTickQueue(SlimefunPlugin.getCfg().getInt("URID.sync-tick-budget-nanos"));
+        syncQueue.start(plugin);
+
         plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
             try {
                 run();
@@ -280,22 +280,65 @@ public final class SlimefunUtils {
     }
 
     private static boolean equalsLore(List<String> lore, List<String> lore2) {
-        StringBuilder string1 = new StringBuilder();
-        StringBuilder string2 = new StringBuilder();
+        int size = lore.size();
+        int size2 = lore2.size();
+        int i = 0;
+        int j = 0;
+
+        // Compare both lores line by line, without copying or joining them
+        while (true) {
+            i = skipIgnoredLines(lore, i, size);
+            j = skipIgnoredLines(lore2, j, size2);
+
+            if (i == size || j == size2) {
+                return i == size && j == size2;
+            }
 
-        for (String string : lore) {
-            if (!string.equals(SOULBOUND_LORE) && !string.startsWith(EMERALDENCHANTS_LORE)) {
-                string1.append("-NEW LINE-").append(string);
+            if (!lore.get(i).equals(lore2.get(j))) {
+                return false;
             }
+
+            i++;
+            j++;
+        }
+    }
+
+    private static int skipIgnoredLines(List<String> lore, int index, int size) {
+        int i = index;
+
+        while (i < size && isIgnoredLine(lore.get(i))) {
+            i++;
         }
 
-        for (String string : lore2) {
-            if (!string.equals(SOULBOUND_LORE) && !string.startsWith(EMERALDENCHANTS_LORE)) {
-                string2.append("-NEW LINE-").append(string);
+        return i;
+    }
+
+    private static boolean isIgnoredLine(String line) {
+        return line.equals(SOULBOUND_LORE) || line.startsWith(EMERALDENCHANTS_LORE);
+    }
+
+    /**
+     * This returns the lines of the given lore, leaving out any lines that
+     * are ignored when comparing two items, such as the soulbound line.
+     * Two lores that are considered equal by {@link #isItemSimilar(ItemStack, ItemStack, boolean)}
+     * will always result in equal {@link List Lists}, so they can be used as a hash key.
+     * Comparing two items should still go through {@link #isItemSimilar(ItemStack, ItemStack, boolean)},
+     * which does not need to copy the lore first.
+     *
+     * @param lore
+     *            The lore to reduce
+     * @return The comparable form of this lore
+     */
+    public static List<String> getComparableLore(List<String> lore) {
+        List<String> lines = new ArrayList<>(lore.size());
+
+        for (String string : lore) {
+            if (!isIgnoredLine(string)) {
+                lines.add(string);
             }
         }
 
-        return string1.toString().equals(string2.toString());
+        return lines;
     }
 
 }
@@ -0,0 +1,217 @@
+package io.github.thebusybiscuit.slimefun4.utils.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * A hash map with primitive long keys.
+ * <p>
+ * Reading from this map never locks and never allocates any objects, which makes it suitable
+ * for lookups on hot paths like the async ticker thread. Writes are synchronized and replace
+ * the affected bucket with a new immutable chain, so readers always see a consistent state.
+ * Iteration is weakly consistent, similar to a {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * @param <V>
+ *            The type of values stored in this map
+ */
+public class LongHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private volatile AtomicReferenceArray<Node<V>> table;
+    private volatile int size;
+
+    public LongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+
+        while (capacity < expectedSize + (expectedSize >> 1)) {
+            capacity <<= 1;
+        }
+
+        table = new AtomicReferenceArray<>(capacity);
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+    public V get(long key) {
+        AtomicReferenceArray<Node<V>> tab = table;
+        Node<V> node = tab.get(hash(key) & (tab.length() - 1));
+
+        while (node != null) {
+            if (node.key == key) {
+                return node.value;
+            }
+
+            node = node.next;
+        }
+
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public synchronized V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongHashMap does not support null values");
+        }
+
+        AtomicReferenceArray<Node<V>> tab = table;
+        int index = hash(key) & (tab.length() - 1);
+        Node<V> head = tab.get(index);
+        V previous = find(head, key);
+
+        tab.set(index, new Node<>(key, value, previous == null ? head : without(head, key)));
+
+        if (previous == null && ++size > (tab.length() >> 1) + (tab.length() >> 2)) {
+            resize();
+        }
+
+        return previous;
+    }
+
+    public synchronized V computeIfAbsent(long key, LongFunction<V> function) {
+        V value = get(key);
+
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    public synchronized V remove(long key) {
+        AtomicReferenceArray<Node<V>> tab = table;
+        int index = hash(key) & (tab.length() - 1);
+        Node<V> head = tab.get(index);
+        V previous = find(head, key);
+
+        if (previous != null) {
+            tab.set(index, without(head, key));
+            size--;
+        }
+
+        return previous;
+    }
+
+    public synchronized boolean remove(long key, V value) {
+        if (value == null || get(key) != value) {
+            return false;
+        }
+
+        remove(key);
+        return true;
+    }
+
+    public synchronized void clear() {
+        table = new AtomicReferenceArray<>(DEFAULT_CAPACITY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This iterates over every entry of this map.
+     * Changes that happen during the iteration may or may not be visible.
+     *
+     * @param consumer
+     *            The callback for every entry
+     */
+    public void forEach(EntryConsumer<V> consumer) {
+        AtomicReferenceArray<Node<V>> tab = table;
+
+        for (int i = 0; i < tab.length(); i++) {
+            for (Node<V> node = tab.get(i); node != null; node = node.next) {
+                consumer.accept(node.key, node.value);
+            }
+        }
+    }
+
+    /**
+     * This returns a snapshot of all values in this map.
+     *
+     * @return A {@link List} of all values
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach((key, value) -> values.add(value));
+        return values;
+    }
+
+    private void resize() {
+        AtomicReferenceArray<Node<V>> oldTable = table;
+        AtomicReferenceArray<Node<V>> newTable = new AtomicReferenceArray<>(oldTable.length() << 1);
+        int mask = newTable.length() - 1;
+
+        for (int i = 0; i < oldTable.length(); i++) {
+            for (Node<V> node = oldTable.get(i); node != null; node = node.next) {
+                int index = hash(node.key) & mask;
+                newTable.set(index, new Node<>(node.key, node.value, newTable.get(index)));
+            }
+        }
+
+        table = newTable;
+    }
+
+    private static <V> V find(Node<V> node, long key) {
+        while (node != null) {
+            if (node.key == key) {
+                return node.value;
+            }
+
+            node = node.next;
+        }
+
+        return null;
+    }
+
+    private static <V> Node<V> without(Node<V> node, long key) {
+        if (node == null) {
+            return null;
+        } else if (node.key == key) {
+            return node.next;
+        } else {
+            // The chains are immutable, so every node in front of the removed one needs to be copied
+            return new Node<>(node.key, node.value, without(node.next, key));
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        void accept(long key, V value);
+
+    }
+
+    private static final class Node<V> {
+
+        private final long key;
+        private final V value;
+        private final Node<V> next;
+
+        private Node(long key, V value, Node<V> next) {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+    }
+
+}
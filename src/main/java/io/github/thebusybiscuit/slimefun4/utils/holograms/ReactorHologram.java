@@ -1,7 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.utils.holograms;
 
-import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
-import me.mrCookieSlime.Slimefun.api.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import org.bukkit.Location;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
@@ -31,10 +30,6 @@ public final class ReactorHologram {
     }
 
     public static void update(Location l, String name) {
-        Slimefun.runSync(() -> {
-            ArmorStand hologram = getArmorStand(l, true);
-            if (!hologram.isCustomNameVisible()) hologram.setCustomNameVisible(true);
-            hologram.setCustomName(ChatColors.color(name));
-        });
+        SlimefunPlugin.getHologramsService().update(l, name);
     }
 }
@@ -1,43 +1,43 @@
 package io.github.thebusybiscuit.slimefun4.utils.holograms;
 
-import io.github.thebusybiscuit.cscorelib2.chat.ChatColors;
-import me.mrCookieSlime.Slimefun.api.Slimefun;
+import io.github.thebusybiscuit.slimefun4.core.services.HologramsService;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 
+/**
+ * This is a simple facade for the {@link HologramsService}.
+ *
+ * @see HologramsService
+ */
 public final class SimpleHologram {
 
     private SimpleHologram() {
     }
 
+    /**
+     * This sets the text of the hologram above the given {@link Block}.
+     * The hologram will be created if it does not exist yet.
+     *
+     * @param b
+     *            The {@link Block}
+     * @param name
+     *            The new text of the hologram
+     */
     public static void update(Block b, String name) {
-        Slimefun.runSync(() -> {
-            ArmorStand hologram = getArmorStand(b, true);
-            hologram.setCustomName(ChatColors.color(name));
-        });
+        SlimefunPlugin.getHologramsService().update(b.getLocation(), name);
     }
 
+    /**
+     * This removes the hologram above the given {@link Block}.
+     *
+     * @param b
+     *            The {@link Block}
+     */
     public static void remove(Block b) {
-        Slimefun.runSync(() -> {
-            ArmorStand hologram = getArmorStand(b, false);
-            if (hologram != null) hologram.remove();
-        });
-    }
-
-    private static ArmorStand getArmorStand(Block b, boolean createIfNoneExists) {
-        Location l = new Location(b.getWorld(), b.getX() + 0.5, b.getY() + 0.7F, b.getZ() + 0.5);
-
-        for (Entity n : l.getChunk().getEntities()) {
-            if (n instanceof ArmorStand && n.getCustomName() != null && l.distanceSquared(n.getLocation()) < 0.4D) {
-                return (ArmorStand) n;
-            }
-        }
-
-        if (!createIfNoneExists) return null;
-        else return create(l);
+        SlimefunPlugin.getHologramsService().remove(b.getLocation());
     }
 
     public static ArmorStand create(Location l) {
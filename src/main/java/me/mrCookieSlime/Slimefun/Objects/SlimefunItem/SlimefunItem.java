@@ -21,7 +21,6 @@ import io.github.thebusybiscuit.slimefun4.implementation.items.backpacks.Slimefu
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.machines.AutoDisenchanter;
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.machines.AutoEnchanter;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
-import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import me.mrCookieSlime.Slimefun.Lists.RecipeType;
 import me.mrCookieSlime.Slimefun.Objects.Category;
 import me.mrCookieSlime.Slimefun.Objects.SlimefunBlockHandler;
@@ -34,6 +33,7 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -342,6 +342,7 @@ public class SlimefunItem implements Placeable {
 
             SlimefunPlugin.getRegistry().getAllSlimefunItems().add(this);
             SlimefunPlugin.getRegistry().getSlimefunItemIds().put(id, this);
+            SlimefunPlugin.getItemResolutionService().clear();
 
             SlimefunPlugin.getItemCfg().setDefaultValue(id + ".enabled", true);
             SlimefunPlugin.getItemCfg().setDefaultValue(id + ".can-be-used-in-workbenches", useableInWorkbench);
@@ -831,28 +832,20 @@ public class SlimefunItem implements Placeable {
             return getByID(((SlimefunItemStack) item).getItemId());
         }
 
-        Optional<String> itemID = SlimefunPlugin.getItemDataService().getItemData(item);
+        // Only request the ItemMeta once, it is cloned on every call
+        ItemMeta meta = item.hasItemMeta() ? item.getItemMeta() : null;
 
-        if (itemID.isPresent()) {
-            return getByID(itemID.get());
+        if (meta != null) {
+            Optional<String> itemID = SlimefunPlugin.getItemDataService().getItemData(meta);
+
+            if (itemID.isPresent()) {
+                return getByID(itemID.get());
+            }
         }
 
         // Backwards compatibility
         if (SlimefunPlugin.getRegistry().isBackwardsCompatible()) {
-            // This wrapper improves the heavy ItemStack#getItemMeta() call by caching it.
-            ItemStackWrapper wrapper = new ItemStackWrapper(item);
-
-            // Quite expensive performance-wise
-            // But necessary for supporting legacy items
-            for (SlimefunItem sfi : SlimefunPlugin.getRegistry().getAllSlimefunItems()) {
-                if (sfi.isItem(wrapper)) {
-                    // If we have to loop all items for the given item, then at least
-                    // set the id via PersistenDataAPI for future performance boosts
-                    SlimefunPlugin.getItemDataService().setItemData(item, sfi.getID());
-
-                    return sfi;
-                }
-            }
+            return SlimefunPlugin.getItemResolutionService().resolveLegacyItem(item, meta);
         }
 
         return null;
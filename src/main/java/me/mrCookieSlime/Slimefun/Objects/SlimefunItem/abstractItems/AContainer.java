@@ -3,7 +3,11 @@ package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
 import io.github.thebusybiscuit.cscorelib2.inventory.InvUtils;
 import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.slimefun4.core.attributes.EnergyNetComponent;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineState;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateView;
 import io.github.thebusybiscuit.slimefun4.core.networks.energy.EnergyNetComponentType;
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
@@ -19,6 +23,7 @@ import me.mrCookieSlime.Slimefun.api.SlimefunItemStack;
 import me.mrCookieSlime.Slimefun.api.energy.ChargableBlock;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenuPreset;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -27,9 +32,12 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class AContainer extends SlimefunItem implements InventoryBlock, EnergyNetComponent {
 
@@ -37,15 +45,32 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
     private static final int[] BORDER_IN = {9, 10, 11, 12, 18, 21, 27, 28, 29, 30};
     private static final int[] BORDER_OUT = {14, 15, 16, 17, 23, 26, 32, 33, 34, 35};
 
-    public static Map<Block, MachineRecipe> processing = new HashMap<>();
-    public static Map<Block, Integer> progress = new HashMap<>();
+    /**
+     * @deprecated Use {@link #getMachineState(Block)} instead
+     */
+    @Deprecated
+    public static Map<Block, MachineRecipe> processing = MachineStateView.operations(AContainer.class, item -> ((AContainer) item).machineStates, Block::getLocation, Location::getBlock, MachineRecipe::getTicks);
+
+    /**
+     * @deprecated Use {@link #getMachineState(Block)} instead
+     */
+    @Deprecated
+    public static Map<Block, Integer> progress = MachineStateView.progress(AContainer.class, item -> ((AContainer) item).machineStates, Block::getLocation, Location::getBlock);
+
+    protected final List<MachineRecipe> recipes = new MachineRecipeIndex.RecipeList();
+
+    private final MachineStateStore<MachineRecipe> machineStates;
+
+    private final MachineRecipeIndex recipeIndex = new MachineRecipeIndex();
 
-    protected final List<MachineRecipe> recipes = new ArrayList<>();
+    // Machines that found no recipe, mapped to a copy of their input slots at that time
+    private final Map<Location, ItemStack[]> idleMachines = new ConcurrentHashMap<>();
 
     public AContainer(Category category, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe) {
         super(category, item, recipeType, recipe);
 
         createPreset(this, getInventoryTitle(), this::constructMenu);
+        machineStates = SlimefunPlugin.getMachineStateService().createStore(this, AContainer::serializeRecipe, AContainer::deserializeRecipe);
 
         registerBlockHandler(id, (p, b, tool, reason) -> {
             BlockMenu inv = BlockStorage.getInventory(b);
@@ -66,8 +91,7 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                 }
             }
 
-            progress.remove(b);
-            processing.remove(b);
+            idleMachines.remove(b.getLocation());
             return true;
         });
 
@@ -197,12 +221,64 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
         return EnergyNetComponentType.CONSUMER;
     }
 
+    /**
+     * This returns the {@link MachineState} of the given {@link Block}.
+     *
+     * @param b
+     *            The {@link Block} of this machine
+     * @return The current {@link MachineState} or null if this machine is idle
+     */
+    public MachineState<MachineRecipe> getMachineState(Block b) {
+        return machineStates.get(b.getLocation());
+    }
+
     public MachineRecipe getProcessing(Block b) {
-        return processing.get(b);
+        MachineState<MachineRecipe> state = getMachineState(b);
+        return state == null ? null : state.getOperation();
     }
 
     public boolean isProcessing(Block b) {
-        return getProcessing(b) != null;
+        return getMachineState(b) != null;
+    }
+
+    /**
+     * This returns how many ticks are left until the current operation is done.
+     *
+     * @param b
+     *            The {@link Block} of this machine
+     * @return The remaining ticks or 0 if this machine is idle
+     */
+    public int getProgress(Block b) {
+        MachineState<MachineRecipe> state = getMachineState(b);
+        return state == null ? 0 : state.getRemainingTicks();
+    }
+
+    protected void setProgress(Block b, int ticks) {
+        MachineState<MachineRecipe> state = getMachineState(b);
+
+        if (state != null) {
+            state.setRemainingTicks(ticks);
+        }
+    }
+
+    protected void startProcessing(Block b, MachineRecipe recipe) {
+        machineStates.start(b.getLocation(), recipe, recipe.getTicks());
+    }
+
+    protected void stopProcessing(Block b) {
+        machineStates.finish(b.getLocation());
+    }
+
+    private static String serializeRecipe(MachineRecipe recipe) {
+        return recipe.getTicks() + ";" + MachineStateStore.serializeItems(recipe.getOutput());
+    }
+
+    private static MachineRecipe deserializeRecipe(String value) {
+        // Only the output is needed to finish an operation, the input has already been consumed
+        String[] segments = value.split(";", 2);
+        MachineRecipe recipe = new MachineRecipe(0, new ItemStack[0], MachineStateStore.deserializeItems(segments[1]));
+        recipe.setTicks(Integer.parseInt(segments[0]));
+        return recipe;
     }
 
     public void registerRecipe(MachineRecipe recipe) {
@@ -210,6 +286,21 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
         recipes.add(recipe);
     }
 
+    private BitSet getRecipeCandidates(ItemStack[] items) {
+        synchronized (recipeIndex) {
+            MachineRecipeIndex.RecipeList list = (MachineRecipeIndex.RecipeList) recipes;
+
+            if (recipeIndex.isOutdated(list)) {
+                recipeIndex.rebuild(list);
+
+                // A new recipe may match the input of a machine that was idle before
+                idleMachines.clear();
+            }
+
+            return recipeIndex.getCandidates(items);
+        }
+    }
+
     public void registerRecipe(int seconds, ItemStack[] input, ItemStack[] output) {
         registerRecipe(new MachineRecipe(seconds, input, output));
     }
@@ -220,6 +311,8 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
 
     @Override
     public void preRegister() {
+        boolean concurrent = hasDefaultTick();
+
         addItemHandler(new BlockTicker() {
 
             @Override
@@ -231,46 +324,90 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
             public boolean isSynchronized() {
                 return false;
             }
+
+            @Override
+            public boolean isConcurrent() {
+                return concurrent;
+            }
         });
     }
 
+    /**
+     * This checks whether the default {@link #tick(Block)} is used.
+     * It only touches the inventory, the charge and the {@link MachineState} of its own block,
+     * so it can safely be ticked in parallel. Overridden ticks may do anything, they are not.
+     *
+     * @return Whether this machine uses the default {@link #tick(Block)}
+     */
+    private boolean hasDefaultTick() {
+        for (Class<?> c = getClass(); c != AContainer.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("tick", Block.class);
+                return false;
+            } catch (NoSuchMethodException x) {
+                // Not overridden in this class, let's check its parent
+            }
+        }
+
+        return true;
+    }
+
     protected void tick(Block b) {
         BlockMenu inv = BlockStorage.getInventory(b);
 
-        if (isProcessing(b)) {
-            int timeleft = progress.get(b);
+        MachineState<MachineRecipe> state = getMachineState(b);
+
+        if (state != null) {
+            int timeleft = state.getRemainingTicks();
 
             if (timeleft > 0) {
-                ChestMenuUtils.updateProgressbar(inv, 22, timeleft, processing.get(b).getTicks(), getProgressBar());
+                ChestMenuUtils.updateProgressbar(inv, 22, timeleft, state.getTotalTicks(), getProgressBar());
 
                 if (ChargableBlock.isChargable(b)) {
                     if (ChargableBlock.getCharge(b) < getEnergyConsumption()) return;
                     ChargableBlock.addCharge(b, -getEnergyConsumption());
-                    progress.put(b, timeleft - 1);
+                    state.setRemainingTicks(timeleft - 1);
                 } else {
-                    progress.put(b, timeleft - 1);
+                    state.setRemainingTicks(timeleft - 1);
                 }
             }
             else {
                 inv.replaceExistingItem(22, new CustomItem(Material.BLACK_STAINED_GLASS_PANE, " "));
 
-                for (ItemStack output : processing.get(b).getOutput()) {
+                for (ItemStack output : state.getOperation().getOutput()) {
                     inv.pushItem(output.clone(), getOutputSlots());
                 }
 
-                progress.remove(b);
-                processing.remove(b);
+                stopProcessing(b);
             }
         }
         else {
+            int[] slots = getInputSlots();
+            ItemStack[] items = new ItemStack[slots.length];
+
+            for (int i = 0; i < slots.length; i++) {
+                items[i] = inv.getItemInSlot(slots[i]);
+            }
+
+            // Nothing has changed since we last found no recipe, so there is no need to look again
+            Location l = b.getLocation();
+            ItemStack[] idleInput = idleMachines.get(l);
+
+            if (idleInput != null && Arrays.equals(idleInput, items)) {
+                return;
+            }
+
             MachineRecipe r = null;
             Map<Integer, Integer> found = new HashMap<>();
+            BitSet candidates = getRecipeCandidates(items);
+
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                MachineRecipe recipe = recipes.get(i);
 
-            for (MachineRecipe recipe : recipes) {
                 for (ItemStack input : recipe.getInput()) {
-                    for (int slot : getInputSlots()) {
-                        if (SlimefunUtils.isItemSimilar(inv.getItemInSlot(slot), input, true)) {
-                            found.put(slot, input.getAmount());
+                    for (int j = 0; j < slots.length; j++) {
+                        if (SlimefunUtils.isItemSimilar(items[j], input, true)) {
+                            found.put(slots[j], input.getAmount());
                             break;
                         }
                     }
@@ -283,7 +420,18 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                 }
             }
 
-            if (r != null) {
+            if (r == null) {
+                ItemStack[] snapshot = new ItemStack[items.length];
+
+                for (int i = 0; i < items.length; i++) {
+                    // The menu returns its own stacks, they may change after this tick
+                    snapshot[i] = items[i] == null ? null : items[i].clone();
+                }
+
+                idleMachines.put(l, snapshot);
+            } else {
+                idleMachines.remove(l);
+
                 if (!InvUtils.fitAll(inv.toInventory(), r.getOutput(), getOutputSlots())) {
                     return;
                 }
@@ -292,8 +440,7 @@ public abstract class AContainer extends SlimefunItem implements InventoryBlock,
                     inv.consumeItem(entry.getKey(), entry.getValue());
                 }
 
-                processing.put(b, r);
-                progress.put(b, r.getTicks());
+                startProcessing(b, r);
             }
         }
     }
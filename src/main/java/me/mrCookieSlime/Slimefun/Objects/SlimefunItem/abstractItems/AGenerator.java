@@ -3,6 +3,9 @@ package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
 import io.github.starwishsama.extra.ProtectionChecker;
 import io.github.thebusybiscuit.cscorelib2.item.CustomItem;
 import io.github.thebusybiscuit.cscorelib2.protection.ProtectableAction;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineState;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateStore;
+import io.github.thebusybiscuit.slimefun4.core.machines.MachineStateView;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.implementation.items.electric.AbstractEnergyProvider;
@@ -31,19 +34,33 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public abstract class AGenerator extends AbstractEnergyProvider {
 
-    public static Map<Location, MachineFuel> processing = new HashMap<>();
-    public static Map<Location, Integer> progress = new HashMap<>();
-
     private static final int[] border = {0, 1, 2, 3, 4, 5, 6, 7, 8, 13, 31, 36, 37, 38, 39, 40, 41, 42, 43, 44};
     private static final int[] border_in = {9, 10, 11, 12, 18, 21, 27, 28, 29, 30};
     private static final int[] border_out = {14, 15, 16, 17, 23, 26, 32, 33, 34, 35};
 
+    /**
+     * @deprecated Use {@link #getMachineState(Location)} instead
+     */
+    @Deprecated
+    public static Map<Location, MachineFuel> processing = MachineStateView.operations(AGenerator.class, item -> ((AGenerator) item).machineStates, Function.identity(), Function.identity(), MachineFuel::getTicks);
+
+    /**
+     * @deprecated Use {@link #getMachineState(Location)} instead
+     */
+    @Deprecated
+    public static Map<Location, Integer> progress = MachineStateView.progress(AGenerator.class, item -> ((AGenerator) item).machineStates, Function.identity(), Function.identity());
+
+    private final MachineStateStore<MachineFuel> machineStates;
+
     public AGenerator(Category category, SlimefunItemStack item, RecipeType recipeType, ItemStack[] recipe) {
         super(category, item, recipeType, recipe);
 
+        machineStates = createFuelStateStore();
+
         new BlockMenuPreset(id, getInventoryTitle()) {
 
             @Override
@@ -82,8 +99,7 @@ public abstract class AGenerator extends AbstractEnergyProvider {
                     }
                 }
             }
-            progress.remove(b.getLocation());
-            processing.remove(b.getLocation());
+
             return true;
         });
 
@@ -131,12 +147,24 @@ public abstract class AGenerator extends AbstractEnergyProvider {
         return new int[]{24, 25};
     }
 
+    /**
+     * This returns the {@link MachineState} of the generator at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of this generator
+     * @return The current {@link MachineState} or null if this generator is idle
+     */
+    public MachineState<MachineFuel> getMachineState(Location l) {
+        return machineStates.get(l);
+    }
+
     public MachineFuel getProcessing(Location l) {
-        return processing.get(l);
+        MachineState<MachineFuel> state = getMachineState(l);
+        return state == null ? null : state.getOperation();
     }
 
     public boolean isProcessing(Location l) {
-        return progress.containsKey(l);
+        return getMachineState(l) != null;
     }
 
     @Override
@@ -149,27 +177,29 @@ public abstract class AGenerator extends AbstractEnergyProvider {
                 boolean chargeable = getCapacity() > 0;
                 int charge = chargeable ? ChargableBlock.getCharge(l) : 0;
 
-                if (isProcessing(l)) {
-                    int timeleft = progress.get(l);
+                MachineState<MachineFuel> state = getMachineState(l);
+
+                if (state != null) {
+                    int timeleft = state.getRemainingTicks();
 
                     if (timeleft > 0) {
-                        ChestMenuUtils.updateProgressbar(inv, 22, timeleft, processing.get(l).getTicks(), getProgressBar());
+                        ChestMenuUtils.updateProgressbar(inv, 22, timeleft, state.getTotalTicks(), getProgressBar());
 
                         if (chargeable) {
                             if (getCapacity() - charge >= getEnergyProduction()) {
                                 ChargableBlock.addCharge(l, getEnergyProduction());
-                                progress.put(l, timeleft - 1);
+                                state.setRemainingTicks(timeleft - 1);
                                 return (double) (charge + getEnergyProduction());
                             }
 
                             return charge;
                         } else {
-                            progress.put(l, timeleft - 1);
+                            state.setRemainingTicks(timeleft - 1);
                             return getEnergyProduction();
                         }
                     }
                     else {
-                        ItemStack fuel = processing.get(l).getInput();
+                        ItemStack fuel = state.getOperation().getInput();
 
                         if (isBucket(fuel)) {
                             inv.pushItem(new ItemStack(Material.BUCKET), getOutputSlots());
@@ -177,8 +207,7 @@ public abstract class AGenerator extends AbstractEnergyProvider {
 
                         inv.replaceExistingItem(22, new CustomItem(new ItemStack(Material.BLACK_STAINED_GLASS_PANE), " "));
 
-                        progress.remove(l);
-                        processing.remove(l);
+                        machineStates.finish(l);
                         return charge;
                     }
                 }
@@ -191,8 +220,7 @@ public abstract class AGenerator extends AbstractEnergyProvider {
                             inv.consumeItem(entry.getKey(), entry.getValue());
                         }
 
-                        processing.put(l, fuel);
-                        progress.put(l, fuel.getTicks());
+                        machineStates.start(l, fuel, fuel.getTicks());
                     }
 
                     return charge;
@@ -0,0 +1,144 @@
+package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
+
+import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
+import me.mrCookieSlime.Slimefun.api.SlimefunItemStack;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This package-private class indexes the {@link MachineRecipe MachineRecipes} of an {@link AContainer}
+ * by the {@link Material} and Slimefun item id of their inputs.
+ * <p>
+ * A lookup returns the positions of all recipes that could possibly match the given input,
+ * so only these candidates need to be compared item by item.
+ * The order of the recipes is preserved, the first matching recipe still wins.
+ *
+ * @see AContainer
+ */
+final class MachineRecipeIndex {
+
+    private final Map<Material, BitSet> byMaterial = new EnumMap<>(Material.class);
+    private final Map<Material, BitSet> vanillaByMaterial = new EnumMap<>(Material.class);
+    private final Map<String, BitSet> bySlimefunId = new HashMap<>();
+
+    private int modifications = -1;
+
+    /**
+     * This returns whether this index no longer represents the given recipes.
+     * Recipes can also be added, replaced or removed via {@link AContainer#getMachineRecipes()} directly,
+     * so we cannot rely on {@link AContainer#registerRecipe(MachineRecipe)} alone.
+     *
+     * @param recipes
+     *            The current recipes
+     * @return Whether this index needs to be rebuilt
+     */
+    boolean isOutdated(RecipeList recipes) {
+        return modifications != recipes.getModifications();
+    }
+
+    void rebuild(RecipeList recipes) {
+        byMaterial.clear();
+        vanillaByMaterial.clear();
+        bySlimefunId.clear();
+
+        for (int i = 0; i < recipes.size(); i++) {
+            for (ItemStack input : recipes.get(i).getInput()) {
+                if (input != null) {
+                    add(i, input);
+                }
+            }
+        }
+
+        modifications = recipes.getModifications();
+    }
+
+    private void add(int position, ItemStack input) {
+        byMaterial.computeIfAbsent(input.getType(), type -> new BitSet()).set(position);
+        Optional<String> id = getSlimefunId(input);
+
+        if (id.isPresent()) {
+            bySlimefunId.computeIfAbsent(id.get(), key -> new BitSet()).set(position);
+        } else {
+            vanillaByMaterial.computeIfAbsent(input.getType(), type -> new BitSet()).set(position);
+        }
+    }
+
+    /**
+     * This returns the positions of every recipe that has at least one input which could
+     * match any of the given items.
+     *
+     * @param items
+     *            The items inside the input slots of our machine
+     * @return A {@link BitSet} of candidate recipe positions
+     */
+    BitSet getCandidates(ItemStack[] items) {
+        BitSet candidates = new BitSet();
+
+        for (ItemStack item : items) {
+            if (item == null || item.getType() == Material.AIR) {
+                continue;
+            }
+
+            Optional<String> id = getSlimefunId(item);
+
+            if (id.isPresent()) {
+                // A Slimefun item can only match recipes using that item or plain items of the same type
+                or(candidates, bySlimefunId.get(id.get()));
+                or(candidates, vanillaByMaterial.get(item.getType()));
+            } else {
+                // Items without an id may be older Slimefun items, so they could match anything of that type
+                or(candidates, byMaterial.get(item.getType()));
+            }
+        }
+
+        return candidates;
+    }
+
+    private static void or(BitSet candidates, BitSet positions) {
+        if (positions != null) {
+            candidates.or(positions);
+        }
+    }
+
+    private static Optional<String> getSlimefunId(ItemStack item) {
+        if (item instanceof SlimefunItemStack) {
+            return Optional.of(((SlimefunItemStack) item).getItemId());
+        }
+
+        if (!item.hasItemMeta()) {
+            return Optional.empty();
+        }
+
+        return SlimefunPlugin.getItemDataService().getItemData(item);
+    }
+
+    /**
+     * The {@link RecipeList} holds the recipes of an {@link AContainer}.
+     * It counts every modification, including recipes that were replaced via {@link #set(int, MachineRecipe)},
+     * so a {@link MachineRecipeIndex} knows when it has to be rebuilt.
+     */
+    static final class RecipeList extends ArrayList<MachineRecipe> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public MachineRecipe set(int index, MachineRecipe recipe) {
+            // An ArrayList does not count replaced elements as a modification
+            modCount++;
+            return super.set(index, recipe);
+        }
+
+        int getModifications() {
+            return modCount;
+        }
+
+    }
+
+}
@@ -10,12 +10,17 @@ import java.util.Optional;
 
 public abstract class BlockTicker implements ItemHandler {
 
-    protected boolean unique = true;
+    protected volatile boolean unique = true;
 
     public void update() {
         if (unique) {
-            uniqueTick();
-            unique = false;
+            synchronized (this) {
+                // Concurrent tickers may reach this from multiple threads at once
+                if (unique) {
+                    uniqueTick();
+                    unique = false;
+                }
+            }
         }
     }
 
@@ -40,6 +45,21 @@ public abstract class BlockTicker implements ItemHandler {
      */
     public abstract boolean isSynchronized();
 
+    /**
+     * This method defines whether this {@link BlockTicker} may be ticked concurrently
+     * when parallel ticking is enabled.
+     * Blocks are then ticked on multiple threads at once, partitioned by region.
+     * Only return true if {@link #tick(Block, SlimefunItem, Config)} does not touch any
+     * shared state outside of the ticked {@link Block} and its region.
+     * <p>
+     * This has no effect on synchronized tickers.
+     *
+     * @return Whether this ticker can safely be run in parallel
+     */
+    public boolean isConcurrent() {
+        return false;
+    }
+
     /**
      * This method is called every tick for every block
      *
@@ -0,0 +1,92 @@
+package me.mrCookieSlime.Slimefun.api;
+
+import org.apache.commons.lang.Validate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link BlockDataKey} is an interned key for the typed accessors of {@link BlockInfoConfig}.
+ * Every key is assigned a unique index which is used to address its slot inside a {@link BlockInfoConfig},
+ * so reading or writing a number does not need to go through {@link String} parsing.
+ * <p>
+ * Keys should be obtained once via {@link #of(String)} and then be stored in a constant.
+ *
+ * @see BlockInfoConfig
+ */
+public final class BlockDataKey {
+
+    private static final Map<String, BlockDataKey> keys = new ConcurrentHashMap<>();
+    private static volatile BlockDataKey[] byIndex = new BlockDataKey[0];
+
+    private final String name;
+    private final int index;
+
+    private BlockDataKey(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * This returns the {@link BlockDataKey} for the given name.
+     * Calling this method twice with the same name will return the same instance.
+     *
+     * @param name
+     *            The name of this key, as used in the block data
+     * @return The interned {@link BlockDataKey}
+     */
+    public static BlockDataKey of(String name) {
+        Validate.notNull(name, "The name of a BlockDataKey cannot be null");
+        Validate.isTrue(name.indexOf('.') == -1, "The name of a BlockDataKey cannot contain a dot: ", name);
+
+        BlockDataKey key = keys.get(name);
+        return key == null ? create(name) : key;
+    }
+
+    private static synchronized BlockDataKey create(String name) {
+        BlockDataKey key = keys.get(name);
+
+        if (key == null) {
+            key = new BlockDataKey(name, byIndex.length);
+
+            // The index needs to be resolvable before anyone can obtain this key
+            BlockDataKey[] array = Arrays.copyOf(byIndex, byIndex.length + 1);
+            array[key.index] = key;
+            byIndex = array;
+
+            keys.put(name, key);
+        }
+
+        return key;
+    }
+
+    /**
+     * This returns the {@link BlockDataKey} for the given name if one was created before.
+     *
+     * @param name
+     *            The name of this key
+     * @return The {@link BlockDataKey} or null if no such key exists
+     */
+    static BlockDataKey getIfPresent(String name) {
+        return keys.get(name);
+    }
+
+    static BlockDataKey getByIndex(int index) {
+        return byIndex[index];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockDataKey(" + name + ')';
+    }
+
+}
@@ -0,0 +1,126 @@
+package me.mrCookieSlime.Slimefun.api;
+
+import io.github.thebusybiscuit.slimefun4.utils.collections.LongHashMap;
+import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.function.BiConsumer;
+
+/**
+ * This package-private class is the in-memory index of all blocks stored in a {@link BlockStorage}.
+ * <p>
+ * Blocks are grouped by their chunk, which is addressed by its coordinates packed into a long.
+ * Inside a chunk, every block is addressed by its position relative to that chunk.
+ * This way a lookup does not need to hash a {@link Location} or allocate any objects,
+ * and all blocks of a chunk can be visited without going through the entire {@link World}.
+ * <p>
+ * Before a chunk is accessed, the {@link Hydrator} of this index is given the chance to load
+ * that chunk, so blocks can be loaded on demand. Writes always load the chunk first, a write to a chunk
+ * whose blocks have not been loaded would otherwise clash with the stored blocks.
+ *
+ * @see BlockStorage
+ */
+final class BlockIndex {
+
+    private final World world;
+    private final Hydrator hydrator;
+    private final LongHashMap<LongHashMap<Config>> chunks = new LongHashMap<>();
+
+    BlockIndex(World world, Hydrator hydrator) {
+        this.world = world;
+        this.hydrator = hydrator;
+    }
+
+    static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static long getBlockKey(int x, int y, int z) {
+        // The y coordinate is kept in the upper bits so that it is not limited to a byte
+        return ((long) y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    Config get(Location l) {
+        return get(l.getBlockX(), l.getBlockY(), l.getBlockZ());
+    }
+
+    Config get(int x, int y, int z) {
+        hydrator.hydrate(x >> 4, z >> 4, false);
+        LongHashMap<Config> chunk = chunks.get(getChunkKey(x >> 4, z >> 4));
+        return chunk == null ? null : chunk.get(getBlockKey(x, y, z));
+    }
+
+    boolean contains(Location l) {
+        return get(l) != null;
+    }
+
+    Config put(Location l, Config cfg) {
+        int x = l.getBlockX();
+        int z = l.getBlockZ();
+        hydrator.hydrate(x >> 4, z >> 4, true);
+
+        synchronized (this) {
+            LongHashMap<Config> chunk = chunks.computeIfAbsent(getChunkKey(x >> 4, z >> 4), key -> new LongHashMap<>());
+            return chunk.put(getBlockKey(x, l.getBlockY(), z), cfg);
+        }
+    }
+
+    Config remove(Location l) {
+        int x = l.getBlockX();
+        int z = l.getBlockZ();
+        hydrator.hydrate(x >> 4, z >> 4, true);
+
+        synchronized (this) {
+            long chunkKey = getChunkKey(x >> 4, z >> 4);
+            LongHashMap<Config> chunk = chunks.get(chunkKey);
+
+            if (chunk == null) {
+                return null;
+            }
+
+            Config previous = chunk.remove(getBlockKey(x, l.getBlockY(), z));
+
+            if (chunk.isEmpty()) {
+                chunks.remove(chunkKey);
+            }
+
+            return previous;
+        }
+    }
+
+    int getBlockCount(int chunkX, int chunkZ) {
+        hydrator.hydrate(chunkX, chunkZ, false);
+        LongHashMap<Config> chunk = chunks.get(getChunkKey(chunkX, chunkZ));
+        return chunk == null ? 0 : chunk.size();
+    }
+
+    void forEachInChunk(int chunkX, int chunkZ, BiConsumer<Location, Config> consumer) {
+        hydrator.hydrate(chunkX, chunkZ, false);
+        LongHashMap<Config> chunk = chunks.get(getChunkKey(chunkX, chunkZ));
+
+        if (chunk != null) {
+            chunk.forEach((key, cfg) -> consumer.accept(toLocation(chunkX, chunkZ, key), cfg));
+        }
+    }
+
+    private Location toLocation(int chunkX, int chunkZ, long key) {
+        int x = (chunkX << 4) | (int) ((key >> 4) & 15);
+        int z = (chunkZ << 4) | (int) (key & 15);
+        return new Location(world, x, (int) (key >> 8), z);
+    }
+
+    /**
+     * A {@link Hydrator} loads the blocks of a chunk into this {@link BlockIndex} on demand.
+     * It is called before every access to a chunk, so it has to return quickly if that
+     * chunk has already been loaded. It must not be called while holding the lock of this index.
+     * Before a write, the chunk has to be loaded by the time this returns.
+     */
+    @FunctionalInterface
+    interface Hydrator {
+
+        void hydrate(int chunkX, int chunkZ, boolean write);
+
+    }
+
+}
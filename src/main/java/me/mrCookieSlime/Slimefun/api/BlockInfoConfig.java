@@ -7,7 +7,9 @@ import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -18,13 +20,31 @@ import java.util.Set;
  * <p>
  * This simply utilises a {@link HashMap} to cache the data and then provides the same getters
  * as a normal {@link Config}.
+ * <p>
+ * Numeric values can also be accessed via typed accessors like {@link #getInt(BlockDataKey, int)}.
+ * These values are kept in primitive slots and are only written to the {@link String} view
+ * when this data is being serialized via {@link #snapshot()}. Reading a {@link String} in the meantime
+ * formats the slot without writing it back, so reads never modify this {@link BlockInfoConfig}.
  *
  * @author creator3
+ * @see BlockDataKey
  */
 public class BlockInfoConfig extends Config {
 
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_FLOAT = 3;
+    private static final byte TYPE_MASK = 0x0F;
+
+    // This flag marks a slot whose value has not been written to the String view yet
+    private static final byte FLAG_DIRTY = 0x10;
+
     private final Map<String, String> data;
 
+    // Both arrays are always replaced together, so readers never see arrays of different lengths
+    private volatile Slots slots;
+    private volatile boolean dirtySlots;
+
     public BlockInfoConfig() {
         this(new HashMap<>());
     }
@@ -35,6 +55,7 @@ public class BlockInfoConfig extends Config {
     }
 
     public Map<String, String> getMap() {
+        flushSlots();
         return data;
     }
 
@@ -46,10 +67,26 @@ public class BlockInfoConfig extends Config {
 
         checkPath(path);
 
+        BlockDataKey key = BlockDataKey.getIfPresent(path);
+
+        // Writes are locked, so a snapshot never sees the String view while it is being modified
+        synchronized (this) {
+            Slots current = slots;
+
+            // The String value is now the most recent one, our slot is outdated
+            if (key != null && current != null && key.getIndex() < current.states.length) {
+                current.states[key.getIndex()] = 0;
+            }
+
+            storeString(path, (String) value);
+        }
+    }
+
+    private void storeString(String path, String value) {
         if (value == null) {
             data.remove(path);
         } else {
-            data.put(path, (String) value);
+            data.put(path, value);
         }
     }
 
@@ -62,7 +99,7 @@ public class BlockInfoConfig extends Config {
     @Override
     public boolean contains(String path) {
         checkPath(path);
-        return data.containsKey(path);
+        return getDirtySlot(path) != null || data.containsKey(path);
     }
 
     @Override
@@ -73,12 +110,226 @@ public class BlockInfoConfig extends Config {
     @Override
     public String getString(String path) {
         checkPath(path);
-        return data.get(path);
+        String value = getDirtySlot(path);
+        return value != null ? value : data.get(path);
     }
 
     @Override
     public Set<String> getKeys() {
-        return data.keySet();
+        if (!dirtySlots) {
+            return data.keySet();
+        }
+
+        Set<String> keys = new HashSet<>(data.keySet());
+        Slots current = slots;
+
+        for (int i = 0; i < current.states.length; i++) {
+            if ((current.states[i] & FLAG_DIRTY) != 0) {
+                keys.add(BlockDataKey.getByIndex(i).getName());
+            }
+        }
+
+        return keys;
+    }
+
+    /**
+     * This checks whether a value is stored for the given {@link BlockDataKey}.
+     *
+     * @param key
+     *            The {@link BlockDataKey} to check
+     * @return Whether a value is present
+     */
+    public boolean contains(BlockDataKey key) {
+        return getType(slots, key.getIndex()) != 0 || getString(key.getName()) != null;
+    }
+
+    /**
+     * This returns the value of the given {@link BlockDataKey} as an int.
+     *
+     * @param key
+     *            The {@link BlockDataKey}
+     * @param defaultValue
+     *            The value to return if no value is present
+     * @return The stored value or the given default value
+     */
+    public int getInt(BlockDataKey key, int defaultValue) {
+        int index = key.getIndex();
+        Slots current = slots;
+
+        switch (getType(current, index)) {
+            case TYPE_INT:
+            case TYPE_LONG:
+                return (int) current.values[index];
+            case TYPE_FLOAT:
+                return (int) Float.intBitsToFloat((int) current.values[index]);
+            default:
+                String value = getString(key.getName());
+
+                if (value == null) {
+                    return defaultValue;
+                }
+
+                int number = Integer.parseInt(value);
+                setSlot(index, number, TYPE_INT, false);
+                return number;
+        }
+    }
+
+    public void setInt(BlockDataKey key, int value) {
+        setSlot(key.getIndex(), value, TYPE_INT, true);
+    }
+
+    /**
+     * This returns the value of the given {@link BlockDataKey} as a long.
+     *
+     * @param key
+     *            The {@link BlockDataKey}
+     * @param defaultValue
+     *            The value to return if no value is present
+     * @return The stored value or the given default value
+     */
+    public long getLong(BlockDataKey key, long defaultValue) {
+        int index = key.getIndex();
+        Slots current = slots;
+
+        switch (getType(current, index)) {
+            case TYPE_INT:
+            case TYPE_LONG:
+                return current.values[index];
+            case TYPE_FLOAT:
+                return (long) Float.intBitsToFloat((int) current.values[index]);
+            default:
+                String value = getString(key.getName());
+
+                if (value == null) {
+                    return defaultValue;
+                }
+
+                long number = Long.parseLong(value);
+                setSlot(index, number, TYPE_LONG, false);
+                return number;
+        }
+    }
+
+    public void setLong(BlockDataKey key, long value) {
+        setSlot(key.getIndex(), value, TYPE_LONG, true);
+    }
+
+    /**
+     * This returns the value of the given {@link BlockDataKey} as a float.
+     *
+     * @param key
+     *            The {@link BlockDataKey}
+     * @param defaultValue
+     *            The value to return if no value is present
+     * @return The stored value or the given default value
+     */
+    public float getFloat(BlockDataKey key, float defaultValue) {
+        int index = key.getIndex();
+        Slots current = slots;
+
+        switch (getType(current, index)) {
+            case TYPE_INT:
+            case TYPE_LONG:
+                return current.values[index];
+            case TYPE_FLOAT:
+                return Float.intBitsToFloat((int) current.values[index]);
+            default:
+                String value = getString(key.getName());
+
+                if (value == null) {
+                    return defaultValue;
+                }
+
+                float number = Float.parseFloat(value);
+                setSlot(index, Float.floatToIntBits(number), TYPE_FLOAT, false);
+                return number;
+        }
+    }
+
+    public void setFloat(BlockDataKey key, float value) {
+        setSlot(key.getIndex(), Float.floatToIntBits(value), TYPE_FLOAT, true);
+    }
+
+    private static int getType(Slots current, int index) {
+        return current != null && index < current.states.length ? current.states[index] & TYPE_MASK : 0;
+    }
+
+    private synchronized void setSlot(int index, long value, byte type, boolean dirty) {
+        Slots current = slots;
+
+        if (current == null || index >= current.values.length) {
+            long[] values = current == null ? new long[index + 1] : Arrays.copyOf(current.values, index + 1);
+            byte[] states = current == null ? new byte[index + 1] : Arrays.copyOf(current.states, index + 1);
+            current = new Slots(values, states);
+        }
+
+        current.values[index] = value;
+
+        if (dirty) {
+            current.states[index] = (byte) (type | FLAG_DIRTY);
+            dirtySlots = true;
+        } else {
+            current.states[index] = type;
+        }
+
+        slots = current;
+    }
+
+    private String getDirtySlot(String path) {
+        if (dirtySlots) {
+            BlockDataKey key = BlockDataKey.getIfPresent(path);
+
+            if (key != null) {
+                Slots current = slots;
+                int index = key.getIndex();
+
+                if (index < current.states.length && (current.states[index] & FLAG_DIRTY) != 0) {
+                    return format(current, index);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static String format(Slots current, int index) {
+        if ((current.states[index] & TYPE_MASK) == TYPE_FLOAT) {
+            return String.valueOf(Float.intBitsToFloat((int) current.values[index]));
+        } else {
+            return String.valueOf(current.values[index]);
+        }
+    }
+
+    /**
+     * This returns a copy of the {@link String} view of this data.
+     * Every changed slot is written to the {@link String} view first, so this should be
+     * used whenever this data is serialized.
+     *
+     * @return A copy of all values of this {@link BlockInfoConfig}
+     */
+    public synchronized Map<String, String> snapshot() {
+        flushSlots();
+        return new HashMap<>(data);
+    }
+
+    /**
+     * This writes every changed slot to the {@link String} view.
+     * It is only called when this data is serialized.
+     */
+    private synchronized void flushSlots() {
+        if (dirtySlots) {
+            Slots current = slots;
+
+            for (int i = 0; i < current.states.length; i++) {
+                if ((current.states[i] & FLAG_DIRTY) != 0) {
+                    data.put(BlockDataKey.getByIndex(i).getName(), format(current, i));
+                    current.states[i] &= TYPE_MASK;
+                }
+            }
+
+            dirtySlots = false;
+        }
     }
 
     private UnsupportedOperationException invalidType(String path) {
@@ -146,7 +397,19 @@ public class BlockInfoConfig extends Config {
     }
 
     public String toJSON() {
-        return new GsonBuilder().create().toJson(data);
+        return new GsonBuilder().create().toJson(snapshot());
+    }
+
+    private static final class Slots {
+
+        private final long[] values;
+        private final byte[] states;
+
+        private Slots(long[] values, byte[] states) {
+            this.values = values;
+            this.states = states;
+        }
+
     }
 
-}
\ No newline at end of file
+}
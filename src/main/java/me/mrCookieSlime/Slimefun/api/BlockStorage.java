@@ -6,6 +6,12 @@ import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonWriter;
 import io.github.thebusybiscuit.cscorelib2.blocks.BlockPosition;
 import io.github.thebusybiscuit.cscorelib2.math.DoubleHandler;
+import io.github.thebusybiscuit.slimefun4.core.services.storage.BlockStorageBackend;
+import io.github.thebusybiscuit.slimefun4.core.services.storage.LegacyBlockStorageBackend;
+import io.github.thebusybiscuit.slimefun4.core.services.storage.LegacyStorageMigrator;
+import io.github.thebusybiscuit.slimefun4.core.services.storage.ParallelFileLoader;
+import io.github.thebusybiscuit.slimefun4.core.services.storage.RegionBlockStorageBackend;
+import io.github.thebusybiscuit.slimefun4.core.ticking.TickingChunk;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.PatternUtils;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
@@ -26,10 +32,10 @@ import org.bukkit.inventory.ItemStack;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,15 +43,27 @@ import java.util.logging.Logger;
 public class BlockStorage {
 
     private static final String PATH_BLOCKS = "data-storage/Slimefun/stored-blocks/";
+    private static final String PATH_REGIONS = "data-storage/Slimefun/stored-regions/";
     private static final String PATH_CHUNKS = "data-storage/Slimefun/stored-chunks/";
     private static final String PATH_INVENTORIES = "data-storage/Slimefun/stored-inventories/";
 
     private static final EmptyBlockData emptyBlockData = new EmptyBlockData();
 
     private final World world;
-    private final Map<Location, Config> storage = new ConcurrentHashMap<>();
+    private final BlockIndex storage;
     private final Map<Location, BlockMenu> inventories = new ConcurrentHashMap<>();
-    private final Map<String, Config> blocksCache = new ConcurrentHashMap<>();
+    private final BlockStorageBackend backend;
+
+    // Regions which are stored on the disk but have not been loaded yet, see #hydrate(int, int)
+    private final Set<Long> pendingRegions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, List<File>> pendingInventories = new ConcurrentHashMap<>();
+    private final Set<Long> loadingRegions = ConcurrentHashMap.newKeySet();
+    private final Object hydrationLock = new Object();
+    private final Queue<Long> hydrationQueue = new ConcurrentLinkedQueue<>();
+    private final Set<Long> queuedRegions = ConcurrentHashMap.newKeySet();
+
+    // The stored inventories of every World, see #indexInventories()
+    private static Map<String, List<File>> inventoryIndex;
 
     private static int chunkChanges = 0;
     private int changes = 0;
@@ -62,10 +80,6 @@ public class BlockStorage {
         return l.getWorld().getName() + ';' + l.getBlockX() + ';' + l.getBlockY() + ';' + l.getBlockZ();
     }
 
-    private static String locationToChunkString(Location l) {
-        return l.getWorld().getName() + ";Chunk;" + (l.getBlockX() >> 4) + ';' + (l.getBlockZ() >> 4);
-    }
-
     private static String serializeChunk(World world, int x, int z) {
         return world.getName() + ";Chunk;" + x + ';' + z;
     }
@@ -90,6 +104,8 @@ public class BlockStorage {
 
     public BlockStorage(World w) {
         this.world = w;
+        this.storage = new BlockIndex(w, this::hydrate);
+        this.backend = createBackend(w);
 
         if (world.getName().indexOf('.') != -1) {
             throw new IllegalArgumentException("Slimefun cannot deal with World names that contain a dot: " + w.getName());
@@ -103,93 +119,209 @@ public class BlockStorage {
         Slimefun.getLogger().log(Level.INFO, "Loading Blocks for World \"{0}\"", w.getName());
         Slimefun.getLogger().log(Level.INFO, "This may take a long time...");
 
-        File dir = new File(PATH_BLOCKS + w.getName());
+        if (backend instanceof RegionBlockStorageBackend && SlimefunPlugin.getCfg().getBoolean("storage.migrate-legacy-files")) {
+            LegacyBlockStorageBackend legacy = new LegacyBlockStorageBackend(w, new File(PATH_BLOCKS + w.getName()));
+            new LegacyStorageMigrator(w, legacy, (RegionBlockStorageBackend) backend).migrate();
+        }
+
+        boolean lazy = backend instanceof RegionBlockStorageBackend && SlimefunPlugin.getCfg().getBoolean("storage.lazy-loading");
 
-        if (dir.exists()) {
-            loadBlocks(dir);
+        if (lazy) {
+            pendingRegions.addAll(((RegionBlockStorageBackend) backend).getStoredRegions());
+            Slimefun.getLogger().log(Level.INFO, "Found {0} Region(s) for World \"{1}\", their Blocks will be loaded on demand", new Object[]{pendingRegions.size(), world.getName()});
         } else {
-            dir.mkdirs();
+            loadBlocks();
         }
 
         loadChunks();
         loadInventories();
 
         SlimefunPlugin.getRegistry().getWorlds().put(world.getName(), this);
+
+        if (lazy) {
+            // Chunks which are already loaded will not fire a ChunkLoadEvent anymore
+            for (Chunk chunk : w.getLoadedChunks()) {
+                hydrate(chunk.getX(), chunk.getZ(), false);
+            }
+        }
     }
 
-    private void loadBlocks(File directory) {
-        long total = directory.listFiles().length;
-        long start = System.currentTimeMillis();
-        long done = 0;
-        long timestamp = System.currentTimeMillis();
-        long totalBlocks = 0;
-        int delay = SlimefunPlugin.getCfg().getInt("URID.info-delay");
+    private static BlockStorageBackend createBackend(World w) {
+        String type = SlimefunPlugin.getCfg().getString("storage.backend");
 
-        try {
-            for (File file : directory.listFiles()) {
-                if (file.getName().equals("null.sfb")) {
-                    Slimefun.getLogger().log(Level.WARNING, "File with corrupted blocks detected!");
-                    Slimefun.getLogger().log(Level.WARNING, "Slimefun will simply skip this File, you should look inside though!");
-                    Slimefun.getLogger().log(Level.WARNING, file.getPath());
-                } else if (file.getName().endsWith(".sfb")) {
-                    if (timestamp + delay < System.currentTimeMillis()) {
-                        int progress = Math.round((((done * 100.0F) / total) * 100.0F) / 100.0F);
-                        Slimefun.getLogger().log(Level.INFO, "Loading Blocks... {0}% done (\"{1}\")", new Object[]{progress, world.getName()});
-                        timestamp = System.currentTimeMillis();
-                    }
+        if ("region".equalsIgnoreCase(type)) {
+            return new RegionBlockStorageBackend(w, new File(PATH_REGIONS + w.getName()));
+        } else {
+            return new LegacyBlockStorageBackend(w, new File(PATH_BLOCKS + w.getName()));
+        }
+    }
 
-                    FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
-
-                    for (String key : cfg.getKeys(false)) {
-                        Location l = deserializeLocation(key);
-                        String chunkString = locationToChunkString(l);
-
-                        try {
-                            totalBlocks++;
-                            String json = cfg.getString(key);
-                            Config blockInfo = parseBlockInfo(l, json);
-
-                            if (blockInfo != null && blockInfo.contains("id")) {
-                                if (storage.containsKey(l)) {
-                                    // It should not be possible to have two blocks on the same location. Ignore the
-                                    // new entry if a block is already present and print an error to the console.
-
-                                    Slimefun.getLogger().log(Level.INFO, "Ignoring duplicate block @ {0}, {1}, {2}", new Object[]{l.getBlockX(), l.getBlockY(), l.getBlockZ()});
-                                    Slimefun.getLogger().log(Level.INFO, "New: {0} | Old: {1}", new Object[]{key, serializeBlockInfo(storage.get(l))});
-                                    continue;
-                                }
-
-                                storage.put(l, blockInfo);
-
-                                if (SlimefunPlugin.getRegistry().getTickerBlocks().contains(file.getName().replace(".sfb", ""))) {
-                                    Set<Location> locations = SlimefunPlugin.getRegistry().getActiveTickers().getOrDefault(chunkString, new HashSet<>());
-                                    locations.add(l);
-                                    SlimefunPlugin.getRegistry().getActiveTickers().put(chunkString, locations);
-
-                                    if (!SlimefunPlugin.getRegistry().getActiveChunks().contains(chunkString)) {
-                                        SlimefunPlugin.getRegistry().getActiveChunks().add(chunkString);
-                                    }
-                                }
-                            }
-                        } catch (Exception x) {
-                            Slimefun.getLogger().log(Level.WARNING, x, () -> "Failed to load " + file.getName() + '(' + key + ") for Slimefun " + SlimefunPlugin.getVersion());
-                        }
-                    }
+    private void loadBlocks() {
+        long start = System.currentTimeMillis();
+        long[] totalBlocks = {0};
 
-                    done++;
-                }
-            }
+        try {
+            backend.load((l, blockInfo) -> {
+                totalBlocks[0]++;
+                loadBlock(l, blockInfo);
+            });
         } finally {
             long time = (System.currentTimeMillis() - start);
             Slimefun.getLogger().log(Level.INFO, "Loading Blocks... 100% (FINISHED - {0}ms)", time);
-            Slimefun.getLogger().log(Level.INFO, "Loaded a total of {0} Blocks for World \"{1}\"", new Object[]{totalBlocks, world.getName()});
+            Slimefun.getLogger().log(Level.INFO, "Loaded a total of {0} Blocks for World \"{1}\"", new Object[]{totalBlocks[0], world.getName()});
 
-            if (totalBlocks > 0) {
-                Slimefun.getLogger().log(Level.INFO, "Avg: {0}ms/Block", DoubleHandler.fixDouble((double) time / (double) totalBlocks, 3));
+            if (totalBlocks[0] > 0) {
+                Slimefun.getLogger().log(Level.INFO, "Avg: {0}ms/Block", DoubleHandler.fixDouble((double) time / (double) totalBlocks[0], 3));
             }
         }
     }
 
+    private void loadBlock(Location l, BlockInfoConfig blockInfo) {
+        if (storage.contains(l)) {
+            // It should not be possible to have two blocks on the same location. Ignore the
+            // new entry if a block is already present and print an error to the console.
+
+            Slimefun.getLogger().log(Level.INFO, "Ignoring duplicate block @ {0}, {1}, {2}", new Object[]{l.getBlockX(), l.getBlockY(), l.getBlockZ()});
+            Slimefun.getLogger().log(Level.INFO, "New: {0} | Old: {1}", new Object[]{serializeBlockInfo(blockInfo), serializeBlockInfo(storage.get(l))});
+            return;
+        }
+
+        storage.put(l, blockInfo);
+
+        if (SlimefunPlugin.getRegistry().getTickerBlocks().contains(blockInfo.getString("id"))) {
+            SlimefunPlugin.getRegistry().getTickingChunks().add(l);
+        }
+    }
+
+    /**
+     * This loads the blocks and inventories of the region containing the given chunk,
+     * if they have not been loaded yet. This only does something if blocks are loaded on demand,
+     * which can be enabled via "storage.lazy-loading".
+     * <p>
+     * Every access to the blocks of this {@link BlockStorage} goes through here, so any
+     * chunk is loaded before it is first touched by a listener on the main thread.
+     * Loading the inventories of a region creates {@link BlockMenu BlockMenus}, so that only ever happens on the main thread.
+     * Any other {@link Thread} sees a region that has not been loaded yet as empty and
+     * queues it via {@link #queueHydration(int, int)} instead. Only if it is about to write to that region,
+     * its blocks are loaded right away, as the write would otherwise get mixed up with the stored blocks.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     * @param write
+     *            Whether the chunk is about to be written to
+     */
+    public void hydrate(int chunkX, int chunkZ, boolean write) {
+        if (pendingRegions.isEmpty() && pendingInventories.isEmpty()) {
+            return;
+        }
+
+        long region = RegionBlockStorageBackend.getRegionKeyOfChunk(chunkX, chunkZ);
+
+        if (!isPending(region)) {
+            return;
+        }
+
+        if (Bukkit.isPrimaryThread()) {
+            loadRegion(region);
+        } else {
+            if (write) {
+                loadBlocks(region);
+            }
+
+            queueHydration(region);
+        }
+    }
+
+    /**
+     * This queues the region containing the given chunk to be loaded on the main thread,
+     * if it has not been loaded yet. Queued regions are loaded one per tick, so loading
+     * many chunks at once does not load all of their regions within a single tick.
+     * Their blocks only start ticking once they were loaded.
+     *
+     * @param chunkX
+     *            The x coordinate of the chunk
+     * @param chunkZ
+     *            The z coordinate of the chunk
+     */
+    public void queueHydration(int chunkX, int chunkZ) {
+        if (!pendingRegions.isEmpty() || !pendingInventories.isEmpty()) {
+            long region = RegionBlockStorageBackend.getRegionKeyOfChunk(chunkX, chunkZ);
+
+            if (isPending(region)) {
+                queueHydration(region);
+            }
+        }
+    }
+
+    private boolean isPending(long region) {
+        return pendingRegions.contains(region) || pendingInventories.containsKey(region);
+    }
+
+    private boolean hasPendingInventories(Location l) {
+        return !pendingInventories.isEmpty() && pendingInventories.containsKey(RegionBlockStorageBackend.getRegionKeyOfChunk(l.getBlockX() >> 4, l.getBlockZ() >> 4));
+    }
+
+    private void queueHydration(long region) {
+        if (queuedRegions.add(region)) {
+            boolean idle = hydrationQueue.isEmpty();
+            hydrationQueue.add(region);
+
+            if (idle) {
+                Slimefun.runSync(this::hydrateNext);
+            }
+        }
+    }
+
+    private void hydrateNext() {
+        Long region = hydrationQueue.poll();
+
+        if (region != null) {
+            queuedRegions.remove(region);
+
+            // The region may have been loaded on demand in the meantime
+            if (isPending(region)) {
+                loadRegion(region);
+            }
+
+            if (!hydrationQueue.isEmpty()) {
+                Slimefun.runSync(this::hydrateNext);
+            }
+        }
+    }
+
+    private void loadRegion(long region) {
+        loadBlocks(region);
+
+        // The inventories need their blocks, they are only loaded once all blocks are there
+        if (!loadingRegions.contains(region)) {
+            List<File> files = pendingInventories.remove(region);
+
+            if (files != null) {
+                files.forEach(this::loadInventory);
+            }
+        }
+    }
+
+    private void loadBlocks(long region) {
+        synchronized (hydrationLock) {
+            // Blocks of this region may be accessed while it is being loaded, we simply let those through
+            if (pendingRegions.contains(region) && loadingRegions.add(region)) {
+                try {
+                    ((RegionBlockStorageBackend) backend).loadRegion(region, this::loadBlock);
+                } finally {
+                    pendingRegions.remove(region);
+                    loadingRegions.remove(region);
+                }
+            }
+        }
+    }
+
+    private void hydrate(Location l) {
+        hydrate(l.getBlockX() >> 4, l.getBlockZ() >> 4, false);
+    }
+
     private void loadChunks() {
         File chunks = new File(PATH_CHUNKS + "chunks.sfc");
 
@@ -208,27 +340,59 @@ public class BlockStorage {
         }
     }
 
-    private void loadInventories() {
-        for (File file : new File("data-storage/Slimefun/stored-inventories").listFiles()) {
-            if (file.getName().startsWith(world.getName()) && file.getName().endsWith(".sfi")) {
-                try {
-                    Location l = deserializeLocation(file.getName().replace(".sfi", ""));
-                    io.github.thebusybiscuit.cscorelib2.config.Config cfg = new io.github.thebusybiscuit.cscorelib2.config.Config(file);
-                    BlockMenuPreset preset = BlockMenuPreset.getPreset(cfg.getString("preset"));
+    /**
+     * This indexes the stored inventories of every {@link World} with a single scan of their directory.
+     * Every {@link BlockStorage} created afterwards takes its inventories from this index instead of
+     * scanning the directory again, until {@link #clearInventoryIndex()} is called.
+     */
+    public static void indexInventories() {
+        inventoryIndex = scanInventories();
+    }
 
-                    if (preset == null) {
-                        preset = BlockMenuPreset.getPreset(checkID(l));
-                    }
+    /**
+     * This drops the index created by {@link #indexInventories()}.
+     */
+    public static void clearInventoryIndex() {
+        inventoryIndex = null;
+    }
 
-                    if (preset != null) {
-                        inventories.put(l, new BlockMenu(preset, l, cfg));
-                    }
-                } catch (Exception x) {
-                    Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+    private static Map<String, List<File>> scanInventories() {
+        Map<String, List<File>> index = new HashMap<>();
+        File[] files = new File(PATH_INVENTORIES).listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                int separator = name.indexOf(';');
+
+                if (separator > 0 && name.endsWith(".sfi")) {
+                    index.computeIfAbsent(name.substring(0, separator), key -> new ArrayList<>()).add(file);
                 }
             }
         }
 
+        return index;
+    }
+
+    private void loadInventories() {
+        Map<String, List<File>> index = inventoryIndex != null ? inventoryIndex : scanInventories();
+        List<File> files = new ArrayList<>();
+
+        for (File file : index.getOrDefault(world.getName(), Collections.emptyList())) {
+            Location l = deserializeLocation(file.getName().replace(".sfi", ""));
+            long region = l == null ? 0 : RegionBlockStorageBackend.getRegionKeyOfChunk(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+
+            if (l != null && pendingRegions.contains(region)) {
+                // This inventory will be loaded together with its region
+                pendingInventories.computeIfAbsent(region, key -> new ArrayList<>()).add(file);
+            } else {
+                files.add(file);
+            }
+        }
+
+        // The files are parsed in parallel, the menus are still created on this Thread
+        ParallelFileLoader.load("Inventories for World \"" + world.getName() + '"', files, BlockStorage::readInventory, this::loadInventory);
+
         for (File file : new File("data-storage/Slimefun/universal-inventories").listFiles()) {
             if (file.getName().endsWith(".sfi")) {
                 try {
@@ -245,8 +409,42 @@ public class BlockStorage {
         }
     }
 
+    private static io.github.thebusybiscuit.cscorelib2.config.Config readInventory(File file) {
+        try {
+            return new io.github.thebusybiscuit.cscorelib2.config.Config(file);
+        } catch (Exception x) {
+            Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+            return null;
+        }
+    }
+
+    private void loadInventory(File file) {
+        io.github.thebusybiscuit.cscorelib2.config.Config cfg = readInventory(file);
+
+        if (cfg != null) {
+            loadInventory(file, cfg);
+        }
+    }
+
+    private void loadInventory(File file, io.github.thebusybiscuit.cscorelib2.config.Config cfg) {
+        try {
+            Location l = deserializeLocation(file.getName().replace(".sfi", ""));
+            BlockMenuPreset preset = BlockMenuPreset.getPreset(cfg.getString("preset"));
+
+            if (preset == null) {
+                preset = BlockMenuPreset.getPreset(checkID(l));
+            }
+
+            if (preset != null) {
+                inventories.put(l, new BlockMenu(preset, l, cfg));
+            }
+        } catch (Exception x) {
+            Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while loading this Block Inventory: " + file.getName());
+        }
+    }
+
     public void computeChanges() {
-        changes = blocksCache.size() + chunkChanges;
+        changes = backend.getChanges() + chunkChanges;
 
         Map<Location, BlockMenu> inventories2 = new HashMap<>(inventories);
         for (Map.Entry<Location, BlockMenu> entry : inventories2.entrySet()) {
@@ -278,33 +476,7 @@ public class BlockStorage {
 
         Slimefun.getLogger().log(Level.INFO, "Saving Blocks for World \"{0}\" ({1} Change(s) queued)", new Object[]{world.getName(), changes});
 
-        Map<String, Config> cache = new HashMap<>(blocksCache);
-
-        for (Map.Entry<String, Config> entry : cache.entrySet()) {
-            blocksCache.remove(entry.getKey());
-            Config cfg = entry.getValue();
-
-            if (cfg.getKeys().isEmpty()) {
-                File file = cfg.getFile();
-
-                if (file.exists()) {
-                    try {
-                        Files.delete(file.toPath());
-                    } catch (IOException e) {
-                        Slimefun.getLogger().log(Level.WARNING, e, () -> "Could not delete file \"" + file.getName() + '"');
-                    }
-                }
-            } else {
-                File tmpFile = new File(cfg.getFile().getParentFile(), cfg.getFile().getName() + ".tmp");
-                cfg.save(tmpFile);
-
-                try {
-                    Files.move(tmpFile.toPath(), cfg.getFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
-                } catch (IOException x) {
-                    Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Error occurred while copying a temporary File for Slimefun " + SlimefunPlugin.getVersion());
-                }
-            }
-        }
+        backend.save();
 
         Map<Location, BlockMenu> inventories2 = new HashMap<>(inventories);
 
@@ -405,7 +577,16 @@ public class BlockStorage {
         return map;
     }
 
-    private static BlockInfoConfig parseBlockInfo(Location l, String json) {
+    /**
+     * This parses the given JSON {@link String} into a {@link BlockInfoConfig}.
+     *
+     * @param l
+     *            The {@link Location} of the block, used for error messages
+     * @param json
+     *            The JSON {@link String} to parse
+     * @return The parsed {@link BlockInfoConfig} or null if the JSON was malformed
+     */
+    public static BlockInfoConfig parseBlockInfo(Location l, String json) {
         try {
             return new BlockInfoConfig(parseJSON(json));
         } catch (Exception x) {
@@ -421,15 +602,28 @@ public class BlockStorage {
         }
     }
 
-    private static String serializeBlockInfo(Config cfg) {
+    /**
+     * This serializes the given block data into a JSON {@link String}.
+     *
+     * @param cfg
+     *            The data to serialize
+     * @return The resulting JSON {@link String}
+     */
+    public static String serializeBlockInfo(Config cfg) {
         StringWriter string = new StringWriter();
 
         try (JsonWriter writer = new JsonWriter(string)) {
             writer.setLenient(true);
             writer.beginObject();
 
-            for (String key : cfg.getKeys()) {
-                writer.name(key).value(cfg.getString(key));
+            if (cfg instanceof BlockInfoConfig) {
+                for (Map.Entry<String, String> entry : ((BlockInfoConfig) cfg).snapshot().entrySet()) {
+                    writer.name(entry.getKey()).value(entry.getValue());
+                }
+            } else {
+                for (String key : cfg.getKeys()) {
+                    writer.name(key).value(cfg.getString(key));
+                }
             }
 
             writer.endObject();
@@ -457,11 +651,108 @@ public class BlockStorage {
     }
 
     public static void addBlockInfo(Location l, String key, String value, boolean updateTicker) {
+        BlockStorage storage = getStorage(l.getWorld());
+
+        if (storage != null && !updateTicker && !key.equals("id")) {
+            Config cfg = storage.storage.get(l);
+            String id = cfg == null ? null : cfg.getString("id");
+
+            if (id != null) {
+                // Only a value of an existing block changed, we just need to mark it as dirty.
+                // Serializing this block is deferred until the next save.
+                cfg.setValue(key, value);
+                storage.backend.update(l, id, cfg);
+                return;
+            }
+        }
+
         Config cfg = hasBlockInfo(l) ? getLocationInfo(l) : new BlockInfoConfig();
         cfg.setValue(key, value);
         setBlockInfo(l, cfg, updateTicker);
     }
 
+    /**
+     * This returns an int value that is stored at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param key
+     *            The {@link BlockDataKey} of this value
+     * @param defaultValue
+     *            The value to return if no value is present
+     * @return The stored value or the default value
+     */
+    public static int getInt(Location l, BlockDataKey key, int defaultValue) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg instanceof BlockInfoConfig) {
+            return ((BlockInfoConfig) cfg).getInt(key, defaultValue);
+        }
+
+        String value = cfg.getString(key.getName());
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * This returns a float value that is stored at the given {@link Location}.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param key
+     *            The {@link BlockDataKey} of this value
+     * @param defaultValue
+     *            The value to return if no value is present
+     * @return The stored value or the default value
+     */
+    public static float getFloat(Location l, BlockDataKey key, float defaultValue) {
+        Config cfg = getLocationInfo(l);
+
+        if (cfg instanceof BlockInfoConfig) {
+            return ((BlockInfoConfig) cfg).getFloat(key, defaultValue);
+        }
+
+        String value = cfg.getString(key.getName());
+        return value == null ? defaultValue : Float.parseFloat(value);
+    }
+
+    public static void setInt(Location l, BlockDataKey key, int value) {
+        BlockInfoConfig cfg = getTypedInfo(l);
+
+        if (cfg != null) {
+            cfg.setInt(key, value);
+            getStorage(l.getWorld()).backend.update(l, cfg.getString("id"), cfg);
+        } else {
+            addBlockInfo(l, key.getName(), String.valueOf(value));
+        }
+    }
+
+    public static void setFloat(Location l, BlockDataKey key, float value) {
+        BlockInfoConfig cfg = getTypedInfo(l);
+
+        if (cfg != null) {
+            cfg.setFloat(key, value);
+            getStorage(l.getWorld()).backend.update(l, cfg.getString("id"), cfg);
+        } else {
+            addBlockInfo(l, key.getName(), String.valueOf(value));
+        }
+    }
+
+    private static BlockInfoConfig getTypedInfo(Location l) {
+        BlockStorage storage = getStorage(l.getWorld());
+
+        if (storage == null) {
+            return null;
+        }
+
+        Config cfg = storage.storage.get(l);
+
+        if (cfg instanceof BlockInfoConfig && cfg.getString("id") != null) {
+            return (BlockInfoConfig) cfg;
+        }
+
+        return null;
+    }
+
     public static boolean hasBlockInfo(Block block) {
         return hasBlockInfo(block.getLocation());
     }
@@ -508,7 +799,7 @@ public class BlockStorage {
             }
         }
 
-        refreshCache(storage, l, id, serializeBlockInfo(cfg), updateTicker);
+        refreshCache(storage, l, id, cfg, updateTicker);
     }
 
     public static void setBlockInfo(Block b, String json, boolean updateTicker) {
@@ -561,19 +852,8 @@ public class BlockStorage {
                 universalInventory.save();
             }
 
-            String chunkString = locationToChunkString(l);
-
-            if (SlimefunPlugin.getRegistry().getActiveTickers().containsKey(chunkString)) {
-                Set<Location> locations = SlimefunPlugin.getRegistry().getActiveTickers().get(chunkString);
-                locations.remove(l);
-
-                if (locations.isEmpty()) {
-                    SlimefunPlugin.getRegistry().getActiveTickers().remove(chunkString);
-                    SlimefunPlugin.getRegistry().getActiveChunks().remove(chunkString);
-                } else {
-                    SlimefunPlugin.getRegistry().getActiveTickers().put(chunkString, locations);
-                }
-            }
+            SlimefunPlugin.getRegistry().getTickingChunks().remove(l);
+            SlimefunPlugin.getMachineStateService().remove(l);
         }
     }
 
@@ -600,43 +880,23 @@ public class BlockStorage {
         refreshCache(storage, from, previousData.getString("id"), null, true);
         storage.storage.remove(from);
 
-        String chunkString = locationToChunkString(from);
-
-        if (SlimefunPlugin.getRegistry().getActiveTickers().containsKey(chunkString)) {
-            Set<Location> locations = SlimefunPlugin.getRegistry().getActiveTickers().get(chunkString);
-            locations.remove(from);
-
-            if (locations.isEmpty()) {
-                SlimefunPlugin.getRegistry().getActiveTickers().remove(chunkString);
-                SlimefunPlugin.getRegistry().getActiveChunks().remove(chunkString);
-            } else {
-                SlimefunPlugin.getRegistry().getActiveTickers().put(chunkString, locations);
-            }
-        }
+        SlimefunPlugin.getRegistry().getTickingChunks().remove(from);
     }
 
-    private static void refreshCache(BlockStorage storage, Location l, String key, String value, boolean updateTicker) {
+    private static void refreshCache(BlockStorage storage, Location l, String key, Config value, boolean updateTicker) {
         if (key == null) {
             // This Block is no longer valid...
             // Fixes #1577
             return;
         }
 
-        Config cfg = storage.blocksCache.computeIfAbsent(key, k -> new Config(PATH_BLOCKS + l.getWorld().getName() + '/' + key + ".sfb"));
-        cfg.setValue(serializeLocation(l), value);
+        storage.backend.update(l, key, value);
 
         if (updateTicker) {
             SlimefunItem item = SlimefunItem.getByID(key);
 
-            if (item != null && item.isTicking()) {
-                String chunkString = locationToChunkString(l);
-
-                if (value != null) {
-                    Set<Location> locations = SlimefunPlugin.getRegistry().getActiveTickers().computeIfAbsent(chunkString, c -> new HashSet<>());
-                    locations.add(l);
-
-                    SlimefunPlugin.getRegistry().getActiveChunks().add(chunkString);
-                }
+            if (item != null && item.isTicking() && value != null) {
+                SlimefunPlugin.getRegistry().getTickingChunks().add(l);
             }
         }
     }
@@ -646,11 +906,8 @@ public class BlockStorage {
     }
 
     public static SlimefunItem check(Location l) {
-        if (!hasBlockInfo(l)) {
-            return null;
-        }
-
-        return SlimefunItem.getByID(getLocationInfo(l, "id"));
+        String id = checkID(l);
+        return id == null ? null : SlimefunItem.getByID(id);
     }
 
     public static String checkID(Block b) {
@@ -671,20 +928,16 @@ public class BlockStorage {
     }
 
     public static String checkID(Location l) {
-        if (!hasBlockInfo(l)) {
-            return null;
-        }
-
-        return getLocationInfo(l, "id");
+        return getLocationInfo(l).getString("id");
     }
 
     public static boolean check(Location l, String slimefunItem) {
-        if (slimefunItem == null || !hasBlockInfo(l)) {
+        if (slimefunItem == null) {
             return false;
         }
 
         try {
-            String id = getLocationInfo(l, "id");
+            String id = checkID(l);
             return id != null && id.equalsIgnoreCase(slimefunItem);
         } catch (Exception x) {
             Slimefun.getLogger().log(Level.SEVERE, x, () -> "An Exception occurred while checking " + new BlockPosition(l) + " for: \"" + slimefunItem + "\"");
@@ -696,16 +949,55 @@ public class BlockStorage {
         return SlimefunPlugin.getRegistry().getWorlds().containsKey(name);
     }
 
-    public static Set<String> getTickingChunks() {
-        return new HashSet<>(SlimefunPlugin.getRegistry().getActiveChunks());
+    /**
+     * This iterates over every Slimefun block inside the given {@link Chunk}.
+     * Only the blocks of that {@link Chunk} are visited, regardless of how many blocks are stored in its {@link World}.
+     *
+     * @param chunk
+     *            The {@link Chunk} to look at
+     * @param consumer
+     *            The callback for every block and its data
+     */
+    public static void forEachBlock(Chunk chunk, BiConsumer<Location, Config> consumer) {
+        forEachBlock(chunk.getWorld(), chunk.getX(), chunk.getZ(), consumer);
     }
 
-    public static Set<Location> getTickingLocations(Chunk chunk) {
-        return getTickingLocations(chunk.toString());
+    /**
+     * This iterates over every Slimefun block inside the {@link Chunk} at the given coordinates.
+     * Unlike {@link #forEachBlock(Chunk, BiConsumer)}, this does not require the {@link Chunk} to be loaded.
+     *
+     * @param world
+     *            The {@link World} of the {@link Chunk}
+     * @param chunkX
+     *            The x coordinate of the {@link Chunk}
+     * @param chunkZ
+     *            The z coordinate of the {@link Chunk}
+     * @param consumer
+     *            The callback for every block and its data
+     */
+    public static void forEachBlock(World world, int chunkX, int chunkZ, BiConsumer<Location, Config> consumer) {
+        BlockStorage storage = getStorage(world);
+
+        if (storage != null) {
+            storage.storage.forEachInChunk(chunkX, chunkZ, consumer);
+        }
     }
 
-    public static Set<Location> getTickingLocations(String chunk) {
-        return new HashSet<>(SlimefunPlugin.getRegistry().getActiveTickers().get(chunk));
+    /**
+     * This returns the amount of Slimefun blocks inside the given {@link Chunk}.
+     *
+     * @param chunk
+     *            The {@link Chunk} to look at
+     * @return The amount of stored blocks in this {@link Chunk}
+     */
+    public static int getBlockCount(Chunk chunk) {
+        BlockStorage storage = getStorage(chunk.getWorld());
+        return storage == null ? 0 : storage.storage.getBlockCount(chunk.getX(), chunk.getZ());
+    }
+
+    public static Set<Location> getTickingLocations(Chunk chunk) {
+        TickingChunk tickingChunk = SlimefunPlugin.getRegistry().getTickingChunks().getChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        return tickingChunk == null ? new HashSet<>() : new HashSet<>(tickingChunk.getLocations());
     }
 
     public BlockMenu loadInventory(Location l, BlockMenuPreset preset) {
@@ -753,6 +1045,7 @@ public class BlockStorage {
     }
 
     public boolean hasInventory(Location l) {
+        hydrate(l);
         return inventories.containsKey(l);
     }
 
@@ -794,10 +1087,14 @@ public class BlockStorage {
             return null;
         }
 
+        storage.hydrate(l);
         BlockMenu menu = storage.inventories.get(l);
 
         if (menu != null) {
             return menu;
+        } else if (storage.hasPendingInventories(l)) {
+            // It will be loaded together with its region on the main thread
+            return null;
         } else {
             return storage.loadInventory(l, BlockMenuPreset.getPreset(checkID(l)));
         }
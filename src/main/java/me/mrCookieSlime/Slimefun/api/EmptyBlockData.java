@@ -25,4 +25,19 @@ class EmptyBlockData extends BlockInfoConfig {
         return null;
     }
 
+    @Override
+    public void setInt(BlockDataKey key, int value) {
+        store(key.getName(), value);
+    }
+
+    @Override
+    public void setLong(BlockDataKey key, long value) {
+        store(key.getName(), value);
+    }
+
+    @Override
+    public void setFloat(BlockDataKey key, float value) {
+        store(key.getName(), value);
+    }
+
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package me.mrCookieSlime.Slimefun.api.energy;
 import io.github.thebusybiscuit.cscorelib2.skull.SkullBlock;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunPlugin;
 import io.github.thebusybiscuit.slimefun4.utils.HeadTexture;
+import me.mrCookieSlime.Slimefun.api.BlockDataKey;
 import me.mrCookieSlime.Slimefun.api.BlockStorage;
 import me.mrCookieSlime.Slimefun.api.Slimefun;
 import org.bukkit.Location;
@@ -11,7 +12,7 @@ import org.bukkit.block.Block;
 
 public final class ChargableBlock {
 
-    private static final String KEY = "energy-charge";
+    public static final BlockDataKey CHARGE = BlockDataKey.of("energy-charge");
 
     private ChargableBlock() {
     }
@@ -35,12 +36,12 @@ public final class ChargableBlock {
     }
 
     public static int getCharge(Location l) {
-        String charge = BlockStorage.getLocationInfo(l, KEY);
+        int charge = BlockStorage.getInt(l, CHARGE, -1);
 
-        if (charge != null) {
-            return Integer.parseInt(charge);
+        if (charge >= 0) {
+            return charge;
         } else {
-            BlockStorage.addBlockInfo(l, KEY, "0", false);
+            BlockStorage.setInt(l, CHARGE, 0);
             return 0;
         }
     }
@@ -60,12 +61,12 @@ public final class ChargableBlock {
             }
         }
 
-        BlockStorage.addBlockInfo(l, KEY, String.valueOf(charge), false);
+        BlockStorage.setInt(l, CHARGE, charge);
     }
 
     public static void setUnsafeCharge(Location l, int charge, boolean updateTexture) {
         if (charge != getCharge(l)) {
-            BlockStorage.addBlockInfo(l, KEY, String.valueOf(charge), false);
+            BlockStorage.setInt(l, CHARGE, charge);
 
             if (updateTexture) {
                 updateCapacitor(l, charge, getMaxCharge(l));
@@ -73,6 +74,27 @@ public final class ChargableBlock {
         }
     }
 
+    /**
+     * This sets the charge of the block at the given {@link Location} without looking up its
+     * current charge or capacity again. Only use this if you already know both values.
+     *
+     * @param l
+     *            The {@link Location} of the block
+     * @param charge
+     *            The new charge
+     * @param capacity
+     *            The capacity of this block
+     * @param updateTexture
+     *            Whether to update the texture of a capacitor
+     */
+    public static void setUnsafeCharge(Location l, int charge, int capacity, boolean updateTexture) {
+        BlockStorage.setInt(l, CHARGE, charge);
+
+        if (updateTexture) {
+            updateCapacitor(l, charge, capacity);
+        }
+    }
+
     public static int addCharge(Block b, int charge) {
         return addCharge(b.getLocation(), charge);
     }